@@ -0,0 +1,118 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.benchmark;
+
+import org.magiclen.magicrandom.MagicRandomGenerator;
+import org.magiclen.magicrandom.engine.RandomEngine;
+import org.magiclen.magicrandom.engine.Xoshiro256StarStarEngine;
+
+/**
+ * 比較有界整數的產生速度(ns/op)。舊的做法是把[0, 1)的雙倍精準浮點數乘上範圍大小，新的做法是Lemire的乘法移位法，兩者使用同一個亂數引擎。
+ *
+ * @author Magic Len
+ */
+public final class BoundedIntegerBenchmark {
+
+    // -----類別常數-----
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int OPERATIONS = 20000000;
+
+    private static volatile long sink;
+
+    // -----類別方法-----
+    /**
+     * 執行基準測試。
+     *
+     * @param args 傳入參數
+     */
+    public static void main(final String[] args) {
+        final RandomEngine engine = new Xoshiro256StarStarEngine(1);
+        final MagicRandomGenerator generator = new MagicRandomGenerator(engine);
+
+        System.out.println("case\tlegacy double multiply (ns/op)\tLemire multiply-shift (ns/op)");
+        report("randomInteger(0, 1000)", () -> legacyInteger(engine, 0, 1000), () -> generator.randomInteger(0, 1000));
+        report("randomInteger(-2^30, 2^30 + 7)", () -> legacyInteger(engine, -(1 << 30), (1 << 30) + 7), () -> generator.randomInteger(-(1 << 30), (1 << 30) + 7));
+        report("randomLong(0, 10^12)", () -> legacyLong(engine, 0, 1000000000000L), () -> generator.randomLong(0, 1000000000000L));
+        report("randomLong(0, 3 * 2^61)", () -> legacyLong(engine, 0, 3L << 61), () -> generator.randomLong(0, 3L << 61));
+        report("randomLong()", () -> (long) (engine.nextDouble() * Math.pow(2, 64) + Long.MIN_VALUE), generator::randomLong);
+    }
+
+    /**
+     * 舊版的randomInteger(a, b)。
+     */
+    private static long legacyInteger(final RandomEngine engine, final int a, final int b) {
+        return (int) (engine.nextDouble() * (b - a + 1) + a);
+    }
+
+    /**
+     * 舊版的randomLong(a, b)。
+     */
+    private static long legacyLong(final RandomEngine engine, final long a, final long b) {
+        return (long) (engine.nextDouble() * (b - a + 1) + a);
+    }
+
+    /**
+     * 量測並輸出兩種做法的結果。
+     */
+    private static void report(final String name, final Operation legacy, final Operation current) {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            measure(legacy);
+            measure(current);
+        }
+        double legacyTime = Double.MAX_VALUE, currentTime = Double.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; ++i) {
+            legacyTime = Math.min(legacyTime, measure(legacy));
+            currentTime = Math.min(currentTime, measure(current));
+        }
+        System.out.printf("%s\t%.3f\t%.3f%n", name, legacyTime, currentTime);
+    }
+
+    /**
+     * 量測一個動作的平均時間。
+     *
+     * @return 傳回每次呼叫的平均時間(ns)
+     */
+    private static double measure(final Operation operation) {
+        long acc = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; ++i) {
+            acc += operation.run();
+        }
+        final long elapsed = System.nanoTime() - start;
+        sink += acc;
+        return (double) elapsed / OPERATIONS;
+    }
+
+    /**
+     * 被量測的動作。
+     */
+    @FunctionalInterface
+    private interface Operation {
+
+        long run();
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private BoundedIntegerBenchmark() {
+
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.benchmark;
+
+import org.magiclen.magicrandom.MagicRandomGenerator;
+import org.magiclen.magicrandom.engine.RandomEngine;
+import org.magiclen.magicrandom.engine.Xoshiro256StarStarEngine;
+
+/**
+ * 比較產生亂數陣列的速度(每秒產生的元素數量)。舊的做法是逐一向引擎取得亂數再轉換到範圍內，新的做法是fill方法，先用引擎的批次方法產生一段亂數，再用一個簡單的迴圈轉換到範圍內，兩者使用同一種亂數引擎。
+ *
+ * @author Magic Len
+ */
+public final class BulkGenerationBenchmark {
+
+    // -----類別常數-----
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int LENGTH = 1 << 20;
+    private static final int REPEAT = 32;
+
+    private static volatile double sink;
+
+    // -----類別方法-----
+    /**
+     * 執行基準測試。
+     *
+     * @param args 傳入參數
+     */
+    public static void main(final String[] args) {
+        final RandomEngine scalarEngine = new Xoshiro256StarStarEngine(1);
+        final MagicRandomGenerator generator = new MagicRandomGenerator(new Xoshiro256StarStarEngine(1));
+
+        final double[] doubles = new double[LENGTH];
+        final float[] floats = new float[LENGTH];
+        final int[] ints = new int[LENGTH];
+
+        System.out.println("case\tper-element loop (M elements/s)\tbulk fill (M elements/s)");
+        report("double[0, 1)", () -> {
+            for (int i = 0; i < LENGTH; ++i) {
+                doubles[i] = scalarEngine.nextDouble() * 1.0 + 0.0;
+            }
+            return doubles[LENGTH - 1];
+        }, () -> {
+            generator.fill(doubles, 0, LENGTH, 0.0, 1.0, false);
+            return doubles[LENGTH - 1];
+        });
+        report("float[-1, 1)", () -> {
+            for (int i = 0; i < LENGTH; ++i) {
+                floats[i] = (float) (scalarEngine.nextDouble() * 2.0 - 1.0);
+            }
+            return floats[LENGTH - 1];
+        }, () -> {
+            generator.fill(floats, 0, LENGTH, -1f, 1f, false);
+            return floats[LENGTH - 1];
+        });
+        report("int[0, 999]", () -> {
+            for (int i = 0; i < LENGTH; ++i) {
+                ints[i] = (int) (scalarEngine.nextDouble() * 1000);
+            }
+            return ints[LENGTH - 1];
+        }, () -> {
+            generator.fill(ints, 0, LENGTH, 0, 999, false);
+            return ints[LENGTH - 1];
+        });
+    }
+
+    /**
+     * 量測並輸出兩種做法的結果。
+     */
+    private static void report(final String name, final Operation legacy, final Operation bulk) {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            measure(legacy);
+            measure(bulk);
+        }
+        double legacyRate = 0, bulkRate = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; ++i) {
+            legacyRate = Math.max(legacyRate, measure(legacy));
+            bulkRate = Math.max(bulkRate, measure(bulk));
+        }
+        System.out.printf("%s\t%.1f\t%.1f%n", name, legacyRate / 1e6, bulkRate / 1e6);
+    }
+
+    /**
+     * 量測一個動作的產生速度。
+     *
+     * @return 傳回每秒產生的元素數量
+     */
+    private static double measure(final Operation operation) {
+        double acc = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < REPEAT; ++i) {
+            acc += operation.run();
+        }
+        final long elapsed = System.nanoTime() - start;
+        sink += acc;
+        return (double) LENGTH * REPEAT * 1e9 / elapsed;
+    }
+
+    /**
+     * 被量測的動作，產生一整個陣列。
+     */
+    @FunctionalInterface
+    private interface Operation {
+
+        double run();
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private BulkGenerationBenchmark() {
+
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import org.magiclen.magicrandom.MagicRandom;
+import org.magiclen.magicrandom.MagicRandomGenerator;
+import org.magiclen.magicrandom.engine.JdkRandomEngine;
+
+/**
+ * 比較多執行緒同時呼叫靜態方法時的吞吐量。共用java.util.Random(也就是Math.random()的做法)的產生器作為對照組。
+ *
+ * @author Magic Len
+ */
+public final class ContentionBenchmark {
+
+    // -----類別常數-----
+    /**
+     * 每一輪量測的時間(毫秒)。
+     */
+    private static final long MEASURE_MILLIS = 1000;
+
+    /**
+     * 作為對照組的產生器，所有執行緒共用同一個種子。
+     */
+    private static final MagicRandomGenerator SHARED_GENERATOR = new MagicRandomGenerator(new JdkRandomEngine());
+
+    private static final String[] PICK_ARRAY = {"a", "b", "c", "d", "e", "f", "g", "h"};
+
+    private static volatile long sink;
+
+    // -----類別方法-----
+    /**
+     * 執行基準測試。可以傳入最大的執行緒數量，預設為64。
+     *
+     * @param args 傳入參數
+     * @throws InterruptedException 執行緒被中斷時拋出例外
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        final int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+
+        System.out.println("threads\tshared randomInteger (ops/s)\tstatic randomInteger (ops/s)\tshared singlePick (ops/s)\tstatic singlePick (ops/s)");
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            final long sharedInteger = measure(threads, () -> SHARED_GENERATOR.randomInteger(0, 1000));
+            final long staticInteger = measure(threads, () -> MagicRandom.randomInteger(0, 1000));
+            final long sharedPick = measure(threads, () -> SHARED_GENERATOR.singlePickFromArray(PICK_ARRAY, 2, 1).length());
+            final long staticPick = measure(threads, () -> MagicRandom.singlePickFromArray(PICK_ARRAY, 2, 1).length());
+            System.out.printf("%d\t%d\t%d\t%d\t%d%n", threads, sharedInteger, staticInteger, sharedPick, staticPick);
+        }
+    }
+
+    /**
+     * 使用指定數量的執行緒重複呼叫動作，計算每秒的總呼叫次數。
+     *
+     * @param threads 傳入執行緒數量
+     * @param operation 傳入要量測的動作
+     * @return 傳回每秒的總呼叫次數
+     * @throws InterruptedException 執行緒被中斷時拋出例外
+     */
+    private static long measure(final int threads, final Operation operation) throws InterruptedException {
+        final LongAdder counter = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[threads];
+        final long[] deadline = new long[1];
+        for (int i = 0; i < threads; ++i) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException ex) {
+                    return;
+                }
+                long count = 0, acc = 0;
+                while (System.nanoTime() < deadline[0]) {
+                    for (int j = 0; j < 1024; ++j) {
+                        acc += operation.run();
+                    }
+                    count += 1024;
+                }
+                counter.add(count);
+                sink += acc;
+            });
+            workers[i].start();
+        }
+        deadline[0] = System.nanoTime() + MEASURE_MILLIS * 1000000;
+        start.countDown();
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        return counter.sum() * 1000 / MEASURE_MILLIS;
+    }
+
+    /**
+     * 被量測的動作。
+     */
+    @FunctionalInterface
+    private interface Operation {
+
+        long run();
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private ContentionBenchmark() {
+
+    }
+}
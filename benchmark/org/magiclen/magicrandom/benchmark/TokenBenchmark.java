@@ -0,0 +1,121 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.benchmark;
+
+import org.magiclen.magicrandom.MagicRandomGenerator;
+import org.magiclen.magicrandom.TokenGenerator;
+import org.magiclen.magicrandom.engine.Xoshiro256StarStarEngine;
+
+/**
+ * 比較產生隨機字串的速度(每秒產生的字串數量)。舊的做法是用randomByte方法逐一產生字元，新的做法是TokenGenerator，一個64位元的亂數可以切出好幾個字元，兩者使用同一種亂數引擎。
+ *
+ * @author Magic Len
+ */
+public final class TokenBenchmark {
+
+    // -----類別常數-----
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int TOKEN_LENGTH = 32;
+    private static final int COUNT = 1 << 18;
+    private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static volatile int sink;
+
+    // -----類別方法-----
+    /**
+     * 執行基準測試。
+     *
+     * @param args 傳入參數
+     */
+    public static void main(final String[] args) {
+        final MagicRandomGenerator generator = new MagicRandomGenerator(new Xoshiro256StarStarEngine(1));
+        final TokenGenerator alphanumeric = new TokenGenerator(new Xoshiro256StarStarEngine(1), ALPHANUMERIC);
+        final TokenGenerator hex = new TokenGenerator(new Xoshiro256StarStarEngine(1), TokenGenerator.HEX.getAlphabet());
+        final char[] chars = new char[TOKEN_LENGTH];
+        final byte[] bytes = new byte[TOKEN_LENGTH];
+
+        System.out.println("case\tM tokens/s");
+        report("randomByte loop, alphanumeric", () -> {
+            for (int i = 0; i < TOKEN_LENGTH; ++i) {
+                chars[i] = ALPHANUMERIC.charAt(generator.randomByte((byte) 0, (byte) (ALPHANUMERIC.length() - 1)));
+            }
+            return chars[0];
+        });
+        report("TokenGenerator char[], alphanumeric", () -> {
+            alphanumeric.fill(chars, 0, TOKEN_LENGTH);
+            return chars[0];
+        });
+        report("TokenGenerator byte[], alphanumeric", () -> {
+            alphanumeric.fill(bytes, 0, TOKEN_LENGTH);
+            return bytes[0];
+        });
+        report("TokenGenerator String, alphanumeric", () -> alphanumeric.nextToken(TOKEN_LENGTH).charAt(0));
+        report("TokenGenerator byte[], hex", () -> {
+            hex.fill(bytes, 0, TOKEN_LENGTH);
+            return bytes[0];
+        });
+    }
+
+    /**
+     * 量測並輸出結果。
+     */
+    private static void report(final String name, final Operation operation) {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            measure(operation);
+        }
+        double rate = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; ++i) {
+            rate = Math.max(rate, measure(operation));
+        }
+        System.out.printf("%s\t%.2f%n", name, rate / 1e6);
+    }
+
+    /**
+     * 量測一個動作的產生速度。
+     *
+     * @return 傳回每秒產生的字串數量
+     */
+    private static double measure(final Operation operation) {
+        int acc = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < COUNT; ++i) {
+            acc += operation.run();
+        }
+        final long elapsed = System.nanoTime() - start;
+        sink += acc;
+        return (double) COUNT * 1e9 / elapsed;
+    }
+
+    /**
+     * 被量測的動作，產生一個字串。
+     */
+    @FunctionalInterface
+    private interface Operation {
+
+        int run();
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private TokenBenchmark() {
+
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.magiclen.magicrandom.MagicRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MagicRandom產生亂數陣列的方法的基準測試，涵蓋數值可以重複和不能重複兩種模式，以及稀疏和密集兩種範圍。密集的範圍只比陣列長度多25%；浮點數的密集範圍是只有這麼多個可表示值的窄範圍。以ThreadLocalRandom和SplittableRandom作為基準，數值不能重複時基準使用串流的distinct方法。
+ *
+ * @author Magic Len
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayBenchmark {
+
+    // -----物件變數-----
+    @Param({"1000", "100000"})
+    public int length;
+
+    @Param({"sparse", "dense"})
+    public String density;
+
+    @Param({"false", "true"})
+    public boolean unique;
+
+    private final SplittableRandom splittableRandom = new SplittableRandom();
+
+    private long longMax;
+    private int intMax;
+    private int shortLength;
+    private short shortMin, shortMax;
+    private int byteLength;
+    private byte byteMin, byteMax;
+    private double doubleMin, doubleMax;
+    private float floatMin, floatMax;
+
+    private long[] longs;
+    private int[] ints;
+    private short[] shorts;
+    private byte[] bytes;
+    private double[] doubles;
+    private float[] floats;
+
+    // -----物件方法-----
+    @Setup(Level.Trial)
+    public void setup() {
+        final boolean dense = "dense".equals(density);
+        final int span = length + length / 4;
+        longMax = dense ? span - 1 : 1000000000000000L;
+        intMax = dense ? span - 1 : Integer.MAX_VALUE - 1;
+
+        // short和byte的範圍有限，陣列長度也要跟著限制
+        shortLength = Math.min(length, 50000);
+        shortMin = Short.MIN_VALUE;
+        shortMax = dense ? (short) (Short.MIN_VALUE + shortLength + shortLength / 4 - 1) : Short.MAX_VALUE;
+        byteLength = Math.min(length, 200);
+        byteMin = Byte.MIN_VALUE;
+        byteMax = dense ? (byte) (Byte.MIN_VALUE + Math.min(255, byteLength + byteLength / 4 - 1)) : Byte.MAX_VALUE;
+
+        doubleMin = 1.0;
+        doubleMax = dense ? 1.0 + span * Math.ulp(1.0) : 2.0;
+        floatMin = 1.0f;
+        floatMax = dense ? 1.0f + span * Math.ulp(1.0f) : 2.0f;
+
+        longs = new long[length];
+        ints = new int[length];
+        shorts = new short[shortLength];
+        bytes = new byte[byteLength];
+        doubles = new double[length];
+        floats = new float[length];
+    }
+
+    @Benchmark
+    public long[] randomLongArray() {
+        return MagicRandom.randomLongArray(0, longMax, length, unique);
+    }
+
+    @Benchmark
+    public long[] fillLongs() {
+        MagicRandom.fill(longs, 0, length, 0, longMax, unique);
+        return longs;
+    }
+
+    @Benchmark
+    public int[] randomIntegerArray() {
+        return MagicRandom.randomIntegerArray(0, intMax, length, unique);
+    }
+
+    @Benchmark
+    public int[] fillIntegers() {
+        MagicRandom.fill(ints, 0, length, 0, intMax, unique);
+        return ints;
+    }
+
+    @Benchmark
+    public short[] randomShortArray() {
+        return MagicRandom.randomShortArray(shortMin, shortMax, shortLength, unique);
+    }
+
+    @Benchmark
+    public short[] fillShorts() {
+        MagicRandom.fill(shorts, 0, shortLength, shortMin, shortMax, unique);
+        return shorts;
+    }
+
+    @Benchmark
+    public byte[] randomByteArray() {
+        return MagicRandom.randomByteArray(byteMin, byteMax, byteLength, unique);
+    }
+
+    @Benchmark
+    public byte[] fillBytes() {
+        MagicRandom.fill(bytes, 0, byteLength, byteMin, byteMax, unique);
+        return bytes;
+    }
+
+    @Benchmark
+    public double[] randomDoubleArray() {
+        return MagicRandom.randomDoubleArray(doubleMin, doubleMax, length, unique);
+    }
+
+    @Benchmark
+    public double[] fillDoubles() {
+        MagicRandom.fill(doubles, 0, length, doubleMin, doubleMax, unique);
+        return doubles;
+    }
+
+    @Benchmark
+    public float[] randomFloatArray() {
+        return MagicRandom.randomFloatArray(floatMin, floatMax, length, unique);
+    }
+
+    @Benchmark
+    public float[] fillFloats() {
+        MagicRandom.fill(floats, 0, length, floatMin, floatMax, unique);
+        return floats;
+    }
+
+    @Benchmark
+    public long[] baselineThreadLocalRandomLongArray() {
+        if (unique) {
+            return ThreadLocalRandom.current().longs(0, longMax + 1).distinct().limit(length).toArray();
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long[] array = new long[length];
+        for (int i = 0; i < length; ++i) {
+            array[i] = random.nextLong(0, longMax + 1);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public int[] baselineThreadLocalRandomIntegerArray() {
+        if (unique) {
+            return ThreadLocalRandom.current().ints(0, intMax + 1).distinct().limit(length).toArray();
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int[] array = new int[length];
+        for (int i = 0; i < length; ++i) {
+            array[i] = random.nextInt(0, intMax + 1);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public double[] baselineThreadLocalRandomDoubleArray() {
+        if (unique) {
+            return ThreadLocalRandom.current().doubles(doubleMin, doubleMax).distinct().limit(length).toArray();
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final double[] array = new double[length];
+        for (int i = 0; i < length; ++i) {
+            array[i] = random.nextDouble(doubleMin, doubleMax);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public long[] baselineSplittableRandomLongArray() {
+        if (unique) {
+            return splittableRandom.longs(0, longMax + 1).distinct().limit(length).toArray();
+        }
+        return splittableRandom.longs(length, 0, longMax + 1).toArray();
+    }
+
+    @Benchmark
+    public int[] baselineSplittableRandomIntegerArray() {
+        if (unique) {
+            return splittableRandom.ints(0, intMax + 1).distinct().limit(length).toArray();
+        }
+        return splittableRandom.ints(length, 0, intMax + 1).toArray();
+    }
+
+    @Benchmark
+    public double[] baselineSplittableRandomDoubleArray() {
+        if (unique) {
+            return splittableRandom.doubles(doubleMin, doubleMax).distinct().limit(length).toArray();
+        }
+        return splittableRandom.doubles(length, doubleMin, doubleMax).toArray();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 依序使用不同的執行緒數量執行基準測試，每種執行緒數量的結果各自輸出成一個JSON檔案。
+ *
+ * <p>
+ * 用法：java -jar benchmarks.jar [執行緒數量,...] [基準測試名稱的正規表示式]，例如「java -jar benchmarks.jar 1,4,16 ScalarBenchmark」。執行緒數量預設為1,2,4,8，結果會寫入目前目錄中的jmh-result-t執行緒數量.json。第一個參數以「-」開頭時，所有參數都直接交給JMH處理。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class BenchmarkMain {
+
+    // -----類別常數-----
+    private static final String DEFAULT_THREADS = "1,2,4,8";
+
+    // -----類別方法-----
+    /**
+     * 執行基準測試。
+     *
+     * @param args 傳入參數
+     * @throws Exception 執行失敗的時候將拋出例外
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("-")) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        final String threadList = args.length > 0 ? args[0] : DEFAULT_THREADS;
+        final String include = args.length > 1 ? args[1] : BenchmarkMain.class.getPackage().getName() + ".*";
+        for (final String token : threadList.split(",")) {
+            run(Integer.parseInt(token.trim()), include);
+        }
+    }
+
+    /**
+     * 使用指定的執行緒數量執行基準測試。
+     *
+     * @param threads 傳入執行緒數量
+     * @param include 傳入基準測試名稱的正規表示式
+     * @throws RunnerException 執行失敗的時候將拋出例外
+     */
+    private static void run(final int threads, final String include) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-t" + threads + ".json")
+                .build();
+        new Runner(options).run();
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private BenchmarkMain() {
+
+    }
+}
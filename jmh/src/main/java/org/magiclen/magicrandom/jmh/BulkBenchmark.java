@@ -0,0 +1,211 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.magiclen.magicrandom.MagicRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MagicRandom批次產生亂數的方法的基準測試，包括填滿位元組陣列和ByteBuffer、非均勻分布的fill方法，以及亂數串流和依照遞增順序的不重複抽樣。以ThreadLocalRandom和SplittableRandom作為基準。
+ *
+ * @author Magic Len
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkBenchmark {
+
+    // -----物件變數-----
+    @Param({"1000", "100000"})
+    public int length;
+
+    private final SplittableRandom splittableRandom = new SplittableRandom();
+
+    private byte[] bytes;
+    private ByteBuffer heapBuffer;
+    private ByteBuffer directBuffer;
+    private double[] doubles;
+    private long[] longs;
+    private int[] ints;
+
+    // -----物件方法-----
+    @Setup(Level.Trial)
+    public void setup() {
+        bytes = new byte[length];
+        heapBuffer = ByteBuffer.allocate(length);
+        directBuffer = ByteBuffer.allocateDirect(length);
+        doubles = new double[length];
+        longs = new long[length];
+        ints = new int[length];
+    }
+
+    @Benchmark
+    public byte[] fillBytes() {
+        MagicRandom.fill(bytes, 0, length);
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteBuffer fillHeapByteBuffer() {
+        heapBuffer.clear();
+        MagicRandom.fill(heapBuffer);
+        return heapBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer fillDirectByteBuffer() {
+        directBuffer.clear();
+        MagicRandom.fill(directBuffer);
+        return directBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer fillDirectByteBufferRange() {
+        directBuffer.clear();
+        MagicRandom.fill(directBuffer, (byte) 48, (byte) 57);
+        return directBuffer;
+    }
+
+    @Benchmark
+    public double[] fillGaussian() {
+        MagicRandom.fillGaussian(doubles, 0, length, 0, 1);
+        return doubles;
+    }
+
+    @Benchmark
+    public double[] fillExponential() {
+        MagicRandom.fillExponential(doubles, 0, length, 1);
+        return doubles;
+    }
+
+    @Benchmark
+    public long[] fillPoisson() {
+        MagicRandom.fillPoisson(longs, 0, length, 37.5);
+        return longs;
+    }
+
+    @Benchmark
+    public int[] fillZipf() {
+        MagicRandom.fillZipf(ints, 0, length, 1000000, 1.1);
+        return ints;
+    }
+
+    @Benchmark
+    public long intsSum() {
+        return MagicRandom.ints(length, 1, 6).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long uniqueIntsSum() {
+        return MagicRandom.ints(length, 0, Integer.MAX_VALUE, true).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long longsSum() {
+        return MagicRandom.longs(length, 0, 1000000000L).sum();
+    }
+
+    @Benchmark
+    public long uniqueLongsSum() {
+        return MagicRandom.longs(length, 0, Long.MAX_VALUE, true).sum();
+    }
+
+    @Benchmark
+    public long sortedLongsSparseSum() {
+        // 範圍是數量的1000倍，主要使用Algorithm D
+        return MagicRandom.sortedLongs(length, 0, length * 1000L - 1).sum();
+    }
+
+    @Benchmark
+    public long sortedLongsDenseSum() {
+        // 範圍小於數量的13倍，主要使用Algorithm A
+        return MagicRandom.sortedLongs(length, 0, length * 2L - 1).sum();
+    }
+
+    @Benchmark
+    public long sortedLongsWideSum() {
+        // 範圍大於2^53，跳過數量的低位元要另外抽選
+        return MagicRandom.sortedLongs(length, Long.MIN_VALUE, Long.MAX_VALUE).sum();
+    }
+
+    @Benchmark
+    public long sortedLongsIteratorSum() {
+        final PrimitiveIterator.OfLong iterator = MagicRandom.sortedLongsIterator(length, 0, Long.MAX_VALUE);
+        long sum = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.nextLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double doublesSum() {
+        return MagicRandom.doubles(length, 0, 1).sum();
+    }
+
+    @Benchmark
+    public double floatsSum() {
+        return MagicRandom.floats(length, 0, 1).sum();
+    }
+
+    @Benchmark
+    public byte[] baselineThreadLocalRandomBytes() {
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] baselineSplittableRandomBytes() {
+        splittableRandom.nextBytes(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public long baselineThreadLocalRandomIntsSum() {
+        return ThreadLocalRandom.current().ints(length, 1, 7).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long baselineSplittableRandomIntsSum() {
+        return splittableRandom.ints(length, 1, 7).asLongStream().sum();
+    }
+
+    @Benchmark
+    public double baselineSplittableRandomDoublesSum() {
+        return splittableRandom.doubles(length, 0, 1).sum();
+    }
+}
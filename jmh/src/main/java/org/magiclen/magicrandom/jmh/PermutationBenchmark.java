@@ -0,0 +1,269 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.jmh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.magiclen.magicrandom.MagicRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MagicRandom產生排列和洗牌的方法的基準測試。以Collections的shuffle方法搭配ThreadLocalRandom作為基準。
+ *
+ * @author Magic Len
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PermutationBenchmark {
+
+    // -----物件變數-----
+    @Param({"1000", "100000"})
+    public int length;
+
+    private long[] longs;
+    private int[] ints;
+    private short[] shorts;
+    private byte[] bytes;
+    private double[] doubles;
+    private float[] floats;
+    private char[] chars;
+    private boolean[] booleans;
+    private Integer[] objects;
+    private List<Integer> list;
+
+    // -----物件方法-----
+    @Setup(Level.Trial)
+    public void setup() {
+        longs = new long[length];
+        ints = new int[length];
+        shorts = new short[Math.min(length, 65536)];
+        bytes = new byte[256];
+        doubles = new double[length];
+        floats = new float[length];
+        chars = new char[length];
+        booleans = new boolean[length];
+        objects = new Integer[length];
+        list = new ArrayList<>(length);
+        for (int i = 0; i < length; ++i) {
+            objects[i] = i;
+            list.add(i);
+        }
+    }
+
+    @Benchmark
+    public long[] permutationLongs() {
+        return MagicRandom.permutation(0L, length - 1L);
+    }
+
+    @Benchmark
+    public long[] permutationLongsInto() {
+        MagicRandom.permutation(longs, 0, 0L, length - 1L);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] randomLongArrayWholeRange() {
+        return MagicRandom.randomLongArray(0L, length - 1L);
+    }
+
+    @Benchmark
+    public int[] permutationIntegers() {
+        return MagicRandom.permutation(0, length - 1);
+    }
+
+    @Benchmark
+    public int[] permutationIntegersInto() {
+        MagicRandom.permutation(ints, 0, 0, length - 1);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] randomIntegerArrayWholeRange() {
+        return MagicRandom.randomIntegerArray(0, length - 1);
+    }
+
+    @Benchmark
+    public short[] permutationShorts() {
+        return MagicRandom.permutation((short) 0, (short) (shorts.length - 1));
+    }
+
+    @Benchmark
+    public short[] permutationShortsInto() {
+        MagicRandom.permutation(shorts, 0, Short.MIN_VALUE, (short) (Short.MIN_VALUE + shorts.length - 1));
+        return shorts;
+    }
+
+    @Benchmark
+    public short[] randomShortArrayWholeRange() {
+        return MagicRandom.randomShortArray(Short.MIN_VALUE, (short) (Short.MIN_VALUE + shorts.length - 1));
+    }
+
+    @Benchmark
+    public byte[] permutationBytes() {
+        return MagicRandom.permutation(Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    @Benchmark
+    public byte[] permutationBytesInto() {
+        MagicRandom.permutation(bytes, 0, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] randomByteArrayWholeRange() {
+        return MagicRandom.randomByteArray(Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] shuffleLongs() {
+        MagicRandom.shuffle(longs);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] shuffleLongsRange() {
+        MagicRandom.shuffle(longs, length / 4, length / 2);
+        return longs;
+    }
+
+    @Benchmark
+    public int[] shuffleIntegers() {
+        MagicRandom.shuffle(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] shuffleIntegersRange() {
+        MagicRandom.shuffle(ints, length / 4, length / 2);
+        return ints;
+    }
+
+    @Benchmark
+    public short[] shuffleShorts() {
+        MagicRandom.shuffle(shorts);
+        return shorts;
+    }
+
+    @Benchmark
+    public short[] shuffleShortsRange() {
+        MagicRandom.shuffle(shorts, shorts.length / 4, shorts.length / 2);
+        return shorts;
+    }
+
+    @Benchmark
+    public byte[] shuffleBytes() {
+        MagicRandom.shuffle(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] shuffleBytesRange() {
+        MagicRandom.shuffle(bytes, 64, 128);
+        return bytes;
+    }
+
+    @Benchmark
+    public double[] shuffleDoubles() {
+        MagicRandom.shuffle(doubles);
+        return doubles;
+    }
+
+    @Benchmark
+    public double[] shuffleDoublesRange() {
+        MagicRandom.shuffle(doubles, length / 4, length / 2);
+        return doubles;
+    }
+
+    @Benchmark
+    public float[] shuffleFloats() {
+        MagicRandom.shuffle(floats);
+        return floats;
+    }
+
+    @Benchmark
+    public float[] shuffleFloatsRange() {
+        MagicRandom.shuffle(floats, length / 4, length / 2);
+        return floats;
+    }
+
+    @Benchmark
+    public char[] shuffleChars() {
+        MagicRandom.shuffle(chars);
+        return chars;
+    }
+
+    @Benchmark
+    public char[] shuffleCharsRange() {
+        MagicRandom.shuffle(chars, length / 4, length / 2);
+        return chars;
+    }
+
+    @Benchmark
+    public boolean[] shuffleBooleans() {
+        MagicRandom.shuffle(booleans);
+        return booleans;
+    }
+
+    @Benchmark
+    public boolean[] shuffleBooleansRange() {
+        MagicRandom.shuffle(booleans, length / 4, length / 2);
+        return booleans;
+    }
+
+    @Benchmark
+    public Integer[] shuffleObjects() {
+        MagicRandom.shuffle(objects);
+        return objects;
+    }
+
+    @Benchmark
+    public Integer[] shuffleObjectsRange() {
+        MagicRandom.shuffle(objects, length / 4, length / 2);
+        return objects;
+    }
+
+    @Benchmark
+    public List<Integer> shuffleList() {
+        MagicRandom.shuffle(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> baselineCollectionsShuffle() {
+        Collections.shuffle(list, ThreadLocalRandom.current());
+        return list;
+    }
+}
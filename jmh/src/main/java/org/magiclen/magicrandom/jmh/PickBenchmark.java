@@ -0,0 +1,170 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.jmh;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.magiclen.magicrandom.MagicRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MagicRandom抽選元素的方法的基準測試。權重值分成沒有權重、少量權重(4個抽選區域)和大量權重(每個元素一個權重值)三種情況。以ThreadLocalRandom和SplittableRandom隨機選擇索引作為基準。
+ *
+ * @author Magic Len
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PickBenchmark {
+
+    // -----類別常數-----
+    private static final int PICK_COUNT = 100;
+
+    // -----物件變數-----
+    @Param({"10000"})
+    public int size;
+
+    @Param({"none", "small", "large"})
+    public String weighting;
+
+    private final SplittableRandom splittableRandom = new SplittableRandom();
+
+    private Integer[] objects;
+    private long[] longs;
+    private int[] ints;
+    private double[] doubles;
+    private List<Integer> list;
+    private double[] weights;
+
+    // -----物件方法-----
+    @Setup(Level.Trial)
+    public void setup() {
+        objects = new Integer[size];
+        longs = new long[size];
+        ints = new int[size];
+        doubles = new double[size];
+        for (int i = 0; i < size; ++i) {
+            objects[i] = i;
+            longs[i] = i;
+            ints[i] = i;
+            doubles[i] = i;
+        }
+        list = Arrays.asList(objects);
+        switch (weighting) {
+            case "small":
+                weights = new double[]{1, 2, 3, 4};
+                break;
+            case "large":
+                weights = new double[size];
+                for (int i = 0; i < size; ++i) {
+                    weights[i] = 1 + (i % 10);
+                }
+                break;
+            default:
+                weights = new double[0];
+                break;
+        }
+    }
+
+    @Benchmark
+    public Integer singlePickFromArray() {
+        return MagicRandom.singlePickFromArray(objects);
+    }
+
+    @Benchmark
+    public Integer singlePickFromArrayWeighted() {
+        return MagicRandom.singlePickFromArray(objects, weights);
+    }
+
+    @Benchmark
+    public Integer[] pickManyObjects() {
+        return MagicRandom.pickMany(objects, PICK_COUNT, weights);
+    }
+
+    @Benchmark
+    public long[] pickManyLongs() {
+        return MagicRandom.pickMany(longs, PICK_COUNT, weights);
+    }
+
+    @Benchmark
+    public int[] pickManyIntegers() {
+        return MagicRandom.pickMany(ints, PICK_COUNT, weights);
+    }
+
+    @Benchmark
+    public double[] pickManyDoubles() {
+        return MagicRandom.pickMany(doubles, PICK_COUNT, weights);
+    }
+
+    @Benchmark
+    public List<Integer> pickManyFromIterator() {
+        return MagicRandom.pickMany(list.iterator(), PICK_COUNT);
+    }
+
+    @Benchmark
+    public List<Integer> pickManyFromIterable() {
+        return MagicRandom.pickMany(list, PICK_COUNT);
+    }
+
+    @Benchmark
+    public List<Integer> pickManyFromStream() {
+        return MagicRandom.pickMany(list.stream(), PICK_COUNT);
+    }
+
+    @Benchmark
+    public List<Integer> pickManyFromIteratorWeighted() {
+        return MagicRandom.pickMany(list.iterator(), PICK_COUNT, i -> 1 + (i % 10));
+    }
+
+    @Benchmark
+    public List<Integer> pickManyFromIterableWeighted() {
+        return MagicRandom.pickMany(list, PICK_COUNT, i -> 1 + (i % 10));
+    }
+
+    @Benchmark
+    public List<Integer> pickManyFromStreamWeighted() {
+        return MagicRandom.pickMany(list.stream(), PICK_COUNT, i -> 1 + (i % 10));
+    }
+
+    @Benchmark
+    public Integer baselineThreadLocalRandomPick() {
+        return objects[ThreadLocalRandom.current().nextInt(objects.length)];
+    }
+
+    @Benchmark
+    public Integer baselineSplittableRandomPick() {
+        return objects[splittableRandom.nextInt(objects.length)];
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.magiclen.magicrandom.MagicRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MagicRandom取得單一數值的方法的基準測試。以ThreadLocalRandom和每個執行緒各自擁有的SplittableRandom作為基準。
+ *
+ * @author Magic Len
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScalarBenchmark {
+
+    // -----物件變數-----
+    private final SplittableRandom splittableRandom = new SplittableRandom();
+
+    // -----物件方法-----
+    @Benchmark
+    public long randomLong() {
+        return MagicRandom.randomLong();
+    }
+
+    @Benchmark
+    public long randomLongRange() {
+        return MagicRandom.randomLong(-1000000000000L, 1000000000000L);
+    }
+
+    @Benchmark
+    public int randomInteger() {
+        return MagicRandom.randomInteger();
+    }
+
+    @Benchmark
+    public int randomIntegerRange() {
+        return MagicRandom.randomInteger(1, 6);
+    }
+
+    @Benchmark
+    public short randomShort() {
+        return MagicRandom.randomShort();
+    }
+
+    @Benchmark
+    public short randomShortRange() {
+        return MagicRandom.randomShort((short) -1000, (short) 1000);
+    }
+
+    @Benchmark
+    public byte randomByte() {
+        return MagicRandom.randomByte();
+    }
+
+    @Benchmark
+    public byte randomByteRange() {
+        return MagicRandom.randomByte((byte) 48, (byte) 122);
+    }
+
+    @Benchmark
+    public double randomDouble() {
+        return MagicRandom.randomDouble();
+    }
+
+    @Benchmark
+    public double randomDoubleRange() {
+        return MagicRandom.randomDouble(-1.5, 2.5);
+    }
+
+    @Benchmark
+    public float randomFloat() {
+        return MagicRandom.randomFloat();
+    }
+
+    @Benchmark
+    public float randomFloatRange() {
+        return MagicRandom.randomFloat(-1.5f, 2.5f);
+    }
+
+    @Benchmark
+    public double randomGaussian() {
+        return MagicRandom.randomGaussian();
+    }
+
+    @Benchmark
+    public double randomGaussianScaled() {
+        return MagicRandom.randomGaussian(100, 15);
+    }
+
+    @Benchmark
+    public double randomExponential() {
+        return MagicRandom.randomExponential();
+    }
+
+    @Benchmark
+    public double randomExponentialScaled() {
+        return MagicRandom.randomExponential(30);
+    }
+
+    @Benchmark
+    public long randomPoissonSmallMean() {
+        return MagicRandom.randomPoisson(4.5);
+    }
+
+    @Benchmark
+    public long randomPoissonLargeMean() {
+        return MagicRandom.randomPoisson(1000);
+    }
+
+    @Benchmark
+    public int randomZipf() {
+        return MagicRandom.randomZipf(1000000, 1.1);
+    }
+
+    @Benchmark
+    public long baselineThreadLocalRandomLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    @Benchmark
+    public long baselineThreadLocalRandomLongRange() {
+        return ThreadLocalRandom.current().nextLong(-1000000000000L, 1000000000001L);
+    }
+
+    @Benchmark
+    public int baselineThreadLocalRandomIntegerRange() {
+        return ThreadLocalRandom.current().nextInt(1, 7);
+    }
+
+    @Benchmark
+    public double baselineThreadLocalRandomDouble() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Benchmark
+    public double baselineThreadLocalRandomGaussian() {
+        return ThreadLocalRandom.current().nextGaussian();
+    }
+
+    @Benchmark
+    public long baselineSplittableRandomLong() {
+        return splittableRandom.nextLong();
+    }
+
+    @Benchmark
+    public int baselineSplittableRandomIntegerRange() {
+        return splittableRandom.nextInt(1, 7);
+    }
+
+    @Benchmark
+    public double baselineSplittableRandomDouble() {
+        return splittableRandom.nextDouble();
+    }
+}
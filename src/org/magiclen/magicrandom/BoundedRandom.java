@@ -0,0 +1,133 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 從亂數引擎取得沒有偏差的有界整數。
+ * </p>
+ *
+ * <p>
+ * 使用Lemire的乘法移位法(nearly divisionless)：把亂數和範圍大小相乘，取乘積的高位作為結果，只有在乘積的低位落入會造成偏差的區間時，才需要計算一次餘數並重新抽選。64位元的版本使用128位元乘積的高64位元，因此可以精確地涵蓋整個64位元的範圍。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class BoundedRandom {
+
+    // -----類別常數-----
+    /**
+     * 批次產生整數時，每一段的元素數量。
+     */
+    private static final int BLOCK_SIZE = 4096;
+
+    // -----類別方法-----
+    /**
+     * 在[0, bound)的範圍內隨機取得一個長整數。
+     *
+     * @param engine 傳入亂數引擎
+     * @param bound 傳入範圍的大小，視為無號數，0表示2^64
+     * @return 傳回隨機取得的長整數，視為無號數
+     */
+    static long nextLong(final RandomEngine engine, final long bound) {
+        if (bound == 0) {
+            return engine.nextLong();
+        }
+        long x = engine.nextLong();
+        long low = x * bound;
+        if (Long.compareUnsigned(low, bound) < 0) {
+            final long threshold = Long.remainderUnsigned(-bound, bound);
+            while (Long.compareUnsigned(low, threshold) < 0) {
+                x = engine.nextLong();
+                low = x * bound;
+            }
+        }
+        return unsignedMultiplyHigh(x, bound);
+    }
+
+    /**
+     * 在[0, bound)的範圍內隨機取得一個整數。
+     *
+     * @param engine 傳入亂數引擎
+     * @param bound 傳入範圍的大小，必須大於0
+     * @return 傳回隨機取得的整數
+     */
+    static int nextInt(final RandomEngine engine, final int bound) {
+        long m = (engine.nextInt() & 0xFFFFFFFFL) * bound;
+        long l = m & 0xFFFFFFFFL;
+        if (l < bound) {
+            final long t = (0x100000000L - bound) % bound;
+            while (l < t) {
+                m = (engine.nextInt() & 0xFFFFFFFFL) * bound;
+                l = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * 在[min, min + bound)的範圍內隨機產生整數，寫入陣列中的一段範圍。先用引擎的批次方法取得32位元的亂數，再逐一以乘法移位轉換，只有需要拒絕的亂數才會另外向引擎重新抽選。
+     *
+     * @param engine 傳入亂數引擎
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param min 傳入範圍的下限
+     * @param bound 傳入範圍的大小，必須大於0
+     */
+    static void fillInts(final RandomEngine engine, final int[] dest, final int offset, final int length, final int min, final int bound) {
+        final int end = offset + length;
+        for (int i = offset; i < end; i += BLOCK_SIZE) {
+            final int blockEnd = Math.min(end, i + BLOCK_SIZE);
+            engine.nextInts(dest, i, blockEnd - i);
+            for (int j = i; j < blockEnd; ++j) {
+                long m = (dest[j] & 0xFFFFFFFFL) * bound;
+                long l = m & 0xFFFFFFFFL;
+                if (l < bound) {
+                    final long t = (0x100000000L - bound) % bound;
+                    while (l < t) {
+                        m = (engine.nextInt() & 0xFFFFFFFFL) * bound;
+                        l = m & 0xFFFFFFFFL;
+                    }
+                }
+                dest[j] = min + (int) (m >>> 32);
+            }
+        }
+    }
+
+    /**
+     * 計算兩個無號64位元數值的128位元乘積的高64位元。
+     *
+     * @param x 傳入第一個數值
+     * @param y 傳入第二個數值
+     * @return 傳回乘積的高64位元
+     */
+    private static long unsignedMultiplyHigh(final long x, final long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private BoundedRandom() {
+
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 批次產生亂數的JFR事件。只有在MagicRandomMetrics開啟、而且數量達到批次事件門檻值的時候才會送出。
+ *
+ * @author Magic Len
+ */
+@Name("org.magiclen.magicrandom.BulkGeneration")
+@Label("Bulk Random Generation")
+@Category("MagicRandom")
+@Description("A MagicRandomGenerator operation which produced many values at once.")
+@StackTrace(false)
+final class BulkGenerationEvent extends jdk.jfr.Event {
+
+    @Label("Family")
+    String family;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Values")
+    long values;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
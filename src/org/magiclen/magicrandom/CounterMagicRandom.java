@@ -0,0 +1,311 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.CounterRandomEngine;
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 可隨機存取的亂數序列。使用CounterRandomEngine，直接計算種子序列中第index個位置的值，不需要先產生前面的值。
+ * </p>
+ *
+ * <p>
+ * 每個位置的值只由種子和位置決定。有界的數值若是遇到需要拒絕的亂數，會改用同一個位置在其他子序列中的亂數，因此也不會影響其他位置。不同的機器只要使用相同的種子，就可以各自產生資料集中的任意一段，不需要互相協調。這個類別是執行緒安全的。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class CounterMagicRandom {
+
+    // -----物件常數-----
+    private final CounterRandomEngine engine;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param seed 傳入種子
+     */
+    public CounterMagicRandom(final long seed) {
+        engine = new CounterRandomEngine(seed);
+    }
+
+    // -----物件方法-----
+    /**
+     * 取得第index個位置的長整數。
+     *
+     * @param index 傳入位置
+     * @return 傳回長整數
+     */
+    public long randomLongAt(final long index) {
+        return engine.valueAt(index);
+    }
+
+    /**
+     * 取得第index個位置在a~b或是b~a範圍內的長整數。
+     *
+     * @param index 傳入位置
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回長整數
+     */
+    public long randomLongAt(final long index, final long a, final long b) {
+        final IndexEngine indexEngine = new IndexEngine(engine, index);
+        if (b >= a) {
+            return a + BoundedRandom.nextLong(indexEngine, b - a + 1);
+        }
+        return b + BoundedRandom.nextLong(indexEngine, a - b + 1);
+    }
+
+    /**
+     * 取得從第fromIndex個位置開始，連續length個位置在a~b或是b~a範圍內的長整數。
+     *
+     * @param fromIndex 傳入開始的位置
+     * @param length 傳入數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回長整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public long[] randomLongArray(final long fromIndex, final int length, final long a, final long b) {
+        checkLength(length);
+        final long[] array = new long[length];
+        fill(fromIndex, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 將從第fromIndex個位置開始，連續length個位置在a~b或是b~a範圍內的長整數寫入陣列中。
+     *
+     * @param fromIndex 傳入開始的位置
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void fill(final long fromIndex, final long[] dest, final int offset, final int length, final long a, final long b) {
+        checkRange(dest.length, offset, length);
+        final long min = b >= a ? a : b;
+        final long size = (b >= a ? b - a : a - b) + 1;
+        final IndexEngine indexEngine = new IndexEngine(engine, fromIndex);
+        for (int i = 0; i < length; ++i) {
+            indexEngine.reset(fromIndex + i);
+            dest[offset + i] = min + BoundedRandom.nextLong(indexEngine, size);
+        }
+    }
+
+    /**
+     * 取得第index個位置的整數。
+     *
+     * @param index 傳入位置
+     * @return 傳回整數
+     */
+    public int randomIntegerAt(final long index) {
+        return (int) (engine.valueAt(index) >>> 32);
+    }
+
+    /**
+     * 取得第index個位置在a~b或是b~a範圍內的整數。
+     *
+     * @param index 傳入位置
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回整數
+     */
+    public int randomIntegerAt(final long index, final int a, final int b) {
+        final int min = b >= a ? a : b;
+        return min + boundedInt(new IndexEngine(engine, index), Math.abs((long) a - b) + 1);
+    }
+
+    /**
+     * 取得從第fromIndex個位置開始，連續length個位置在a~b或是b~a範圍內的整數。
+     *
+     * @param fromIndex 傳入開始的位置
+     * @param length 傳入數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public int[] randomIntegerArray(final long fromIndex, final int length, final int a, final int b) {
+        checkLength(length);
+        final int[] array = new int[length];
+        fill(fromIndex, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 將從第fromIndex個位置開始，連續length個位置在a~b或是b~a範圍內的整數寫入陣列中。
+     *
+     * @param fromIndex 傳入開始的位置
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void fill(final long fromIndex, final int[] dest, final int offset, final int length, final int a, final int b) {
+        checkRange(dest.length, offset, length);
+        final int min = b >= a ? a : b;
+        final long size = Math.abs((long) a - b) + 1;
+        final IndexEngine indexEngine = new IndexEngine(engine, fromIndex);
+        for (int i = 0; i < length; ++i) {
+            indexEngine.reset(fromIndex + i);
+            dest[offset + i] = min + boundedInt(indexEngine, size);
+        }
+    }
+
+    /**
+     * 取得第index個位置的雙倍精準浮點數。和MagicRandom的randomDouble方法一樣，是直接把長整數的位元轉成雙倍精準浮點數。
+     *
+     * @param index 傳入位置
+     * @return 傳回雙倍精準浮點數
+     */
+    public double randomDoubleAt(final long index) {
+        return Double.longBitsToDouble(engine.valueAt(index));
+    }
+
+    /**
+     * 取得第index個位置在a~b或是b~a範圍內的雙倍精準浮點數。
+     *
+     * @param index 傳入位置
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @return 傳回雙倍精準浮點數
+     */
+    public double randomDoubleAt(final long index, final double a, final double b) {
+        final double rnd = (engine.valueAt(index) >>> 11) * 0x1.0p-53;
+        if (b >= a) {
+            return rnd * (b - a) + a;
+        } else {
+            return rnd * (a - b) + b;
+        }
+    }
+
+    /**
+     * 取得從第fromIndex個位置開始，連續length個位置在a~b或是b~a範圍內的雙倍精準浮點數。
+     *
+     * @param fromIndex 傳入開始的位置
+     * @param length 傳入數量
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @return 傳回雙倍精準浮點數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public double[] randomDoubleArray(final long fromIndex, final int length, final double a, final double b) {
+        checkLength(length);
+        final double[] array = new double[length];
+        fill(fromIndex, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 將從第fromIndex個位置開始，連續length個位置在a~b或是b~a範圍內的雙倍精準浮點數寫入陣列中。
+     *
+     * @param fromIndex 傳入開始的位置
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入數量
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void fill(final long fromIndex, final double[] dest, final int offset, final int length, final double a, final double b) {
+        checkRange(dest.length, offset, length);
+        final double min = b >= a ? a : b;
+        final double size = Math.abs(a - b);
+        for (int i = 0; i < length; ++i) {
+            dest[offset + i] = (engine.valueAt(fromIndex + i) >>> 11) * 0x1.0p-53 * size + min;
+        }
+    }
+
+    /**
+     * 在[0, size)的範圍內取得一個整數。
+     *
+     * @param indexEngine 傳入位置的亂數引擎
+     * @param size 傳入範圍的大小，必須在1~2^32之間
+     * @return 傳回整數
+     */
+    private static int boundedInt(final IndexEngine indexEngine, final long size) {
+        if (size > Integer.MAX_VALUE) {
+            return (int) BoundedRandom.nextLong(indexEngine, size);
+        }
+        return BoundedRandom.nextInt(indexEngine, (int) size);
+    }
+
+    /**
+     * 檢查陣列長度是否合法。
+     *
+     * @param length 傳入陣列長度
+     * @throws ArrayIndexOutOfBoundsException 長度為負數的時候將拋出例外
+     */
+    private static void checkLength(final int length) {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+    }
+
+    /**
+     * 檢查陣列中的範圍是否合法。
+     *
+     * @param arrayLength 傳入陣列長度
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    private static void checkRange(final int arrayLength, final int offset, final int length) {
+        checkLength(length);
+        if (offset < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("The range is out of the array.");
+        }
+    }
+
+    /**
+     * 只取用單一位置的亂數引擎。第一次取用第0號子序列的值，之後依序取用第1、2、3...號子序列的值。
+     */
+    private static final class IndexEngine implements RandomEngine {
+
+        private final CounterRandomEngine engine;
+        private long index;
+        private long stream;
+
+        IndexEngine(final CounterRandomEngine engine, final long index) {
+            this.engine = engine;
+            this.index = index;
+        }
+
+        /**
+         * 改用另一個位置。
+         *
+         * @param index 傳入位置
+         */
+        void reset(final long index) {
+            this.index = index;
+            stream = 0;
+        }
+
+        @Override
+        public long nextLong() {
+            return engine.valueAt(stream++, index);
+        }
+    }
+}
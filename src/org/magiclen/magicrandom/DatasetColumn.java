@@ -0,0 +1,358 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.util.Locale;
+
+/**
+ * <p>
+ * 資料集中一個欄位的規格，包括欄位名稱、型態、數值範圍，以及數值是否不能重複。
+ * </p>
+ *
+ * <p>
+ * 規格可以用字串表示，格式為「[名稱=]型態[:下限:上限][:unique]」，例如「id=long:0:999999999999:unique」、「score=double:0:100」或「payload=bytes:16」。沒有指定範圍時，使用該型態的完整範圍(浮點數為0~1)。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class DatasetColumn {
+
+    /**
+     * 欄位的型態。
+     */
+    public enum Type {
+        /**
+         * 長整數，二進位格式中佔8個位元組。
+         */
+        LONG(8),
+        /**
+         * 整數，二進位格式中佔4個位元組。
+         */
+        INTEGER(4),
+        /**
+         * 短整數，二進位格式中佔2個位元組。
+         */
+        SHORT(2),
+        /**
+         * 位元組，二進位格式中佔1個位元組。
+         */
+        BYTE(1),
+        /**
+         * 雙倍精準浮點數，二進位格式中佔8個位元組。
+         */
+        DOUBLE(8),
+        /**
+         * 單倍精準浮點數，二進位格式中佔4個位元組。
+         */
+        FLOAT(4),
+        /**
+         * 固定長度的隨機位元組，CSV格式中以十六進位表示。
+         */
+        BYTES(0);
+
+        private final int width;
+
+        Type(final int width) {
+            this.width = width;
+        }
+    }
+
+    // -----物件常數-----
+    private final String name;
+    private final Type type;
+    private final long longMin, longMax;
+    private final double doubleMin, doubleMax;
+    private final int length;
+    private final boolean unique;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param name 傳入欄位名稱
+     * @param type 傳入型態
+     * @param longMin 傳入整數型態的下限
+     * @param longMax 傳入整數型態的上限
+     * @param doubleMin 傳入浮點數型態的下限
+     * @param doubleMax 傳入浮點數型態的上限
+     * @param length 傳入BYTES型態的長度
+     * @param unique 傳入數值是否不能重複
+     */
+    private DatasetColumn(final String name, final Type type, final long longMin, final long longMax, final double doubleMin, final double doubleMax, final int length, final boolean unique) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("The name of a column can't be empty.");
+        }
+        this.name = name;
+        this.type = type;
+        this.longMin = longMin;
+        this.longMax = longMax;
+        this.doubleMin = doubleMin;
+        this.doubleMax = doubleMax;
+        this.length = length;
+        this.unique = unique;
+    }
+
+    // -----類別方法-----
+    /**
+     * 建立長整數欄位。
+     *
+     * @param name 傳入欄位名稱
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param unique 傳入數值是否不能重複
+     * @return 傳回欄位規格
+     */
+    public static DatasetColumn ofLongs(final String name, final long a, final long b, final boolean unique) {
+        return new DatasetColumn(name, Type.LONG, Math.min(a, b), Math.max(a, b), 0, 0, 0, unique);
+    }
+
+    /**
+     * 建立整數欄位。
+     *
+     * @param name 傳入欄位名稱
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param unique 傳入數值是否不能重複
+     * @return 傳回欄位規格
+     */
+    public static DatasetColumn ofIntegers(final String name, final int a, final int b, final boolean unique) {
+        return new DatasetColumn(name, Type.INTEGER, Math.min(a, b), Math.max(a, b), 0, 0, 0, unique);
+    }
+
+    /**
+     * 建立短整數欄位。
+     *
+     * @param name 傳入欄位名稱
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @param unique 傳入數值是否不能重複
+     * @return 傳回欄位規格
+     */
+    public static DatasetColumn ofShorts(final String name, final short a, final short b, final boolean unique) {
+        return new DatasetColumn(name, Type.SHORT, Math.min(a, b), Math.max(a, b), 0, 0, 0, unique);
+    }
+
+    /**
+     * 建立位元組欄位。
+     *
+     * @param name 傳入欄位名稱
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @param unique 傳入數值是否不能重複
+     * @return 傳回欄位規格
+     */
+    public static DatasetColumn ofBytes(final String name, final byte a, final byte b, final boolean unique) {
+        return new DatasetColumn(name, Type.BYTE, Math.min(a, b), Math.max(a, b), 0, 0, 0, unique);
+    }
+
+    /**
+     * 建立雙倍精準浮點數欄位，數值可以重複。
+     *
+     * @param name 傳入欄位名稱
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @return 傳回欄位規格
+     */
+    public static DatasetColumn ofDoubles(final String name, final double a, final double b) {
+        return new DatasetColumn(name, Type.DOUBLE, 0, 0, Math.min(a, b), Math.max(a, b), 0, false);
+    }
+
+    /**
+     * 建立單倍精準浮點數欄位，數值可以重複。
+     *
+     * @param name 傳入欄位名稱
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @return 傳回欄位規格
+     */
+    public static DatasetColumn ofFloats(final String name, final float a, final float b) {
+        return new DatasetColumn(name, Type.FLOAT, 0, 0, Math.min(a, b), Math.max(a, b), 0, false);
+    }
+
+    /**
+     * 建立固定長度的隨機位元組欄位。
+     *
+     * @param name 傳入欄位名稱
+     * @param length 傳入每一列的位元組數量
+     * @return 傳回欄位規格
+     * @throws IllegalArgumentException 長度不是正數的時候將拋出例外
+     */
+    public static DatasetColumn ofRawBytes(final String name, final int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("The length of a bytes column must be positive.");
+        }
+        return new DatasetColumn(name, Type.BYTES, 0, 0, 0, 0, length, false);
+    }
+
+    /**
+     * 解析欄位規格字串，格式為「[名稱=]型態[:下限:上限][:unique]」。型態可以是long、int(或integer)、short、byte、double、float或bytes，bytes型態的格式為「bytes:長度」。
+     *
+     * @param spec 傳入欄位規格字串
+     * @param defaultName 傳入規格中沒有名稱時使用的名稱
+     * @return 傳回欄位規格
+     * @throws IllegalArgumentException 規格字串不合法的時候將拋出例外
+     */
+    public static DatasetColumn parse(final String spec, final String defaultName) {
+        final int equals = spec.indexOf('=');
+        final String name = equals >= 0 ? spec.substring(0, equals) : defaultName;
+        final String[] parts = spec.substring(equals + 1).split(":", -1);
+        int count = parts.length;
+        final boolean unique = count > 1 && parts[count - 1].equalsIgnoreCase("unique");
+        if (unique) {
+            --count;
+        }
+        final String type = parts[0].toLowerCase(Locale.ROOT);
+        try {
+            if (type.equals("bytes")) {
+                if (count != 2 || unique) {
+                    throw new IllegalArgumentException("A bytes column must be written as bytes:length.");
+                }
+                return ofRawBytes(name, Integer.parseInt(parts[1]));
+            }
+            if (count != 1 && count != 3) {
+                throw new IllegalArgumentException("The range of a column must have both bounds: " + spec);
+            }
+            final boolean ranged = count == 3;
+            switch (type) {
+                case "long":
+                    return ofLongs(name, ranged ? Long.parseLong(parts[1]) : Long.MIN_VALUE, ranged ? Long.parseLong(parts[2]) : Long.MAX_VALUE, unique);
+                case "int":
+                case "integer":
+                    return ofIntegers(name, ranged ? Integer.parseInt(parts[1]) : Integer.MIN_VALUE, ranged ? Integer.parseInt(parts[2]) : Integer.MAX_VALUE, unique);
+                case "short":
+                    return ofShorts(name, ranged ? Short.parseShort(parts[1]) : Short.MIN_VALUE, ranged ? Short.parseShort(parts[2]) : Short.MAX_VALUE, unique);
+                case "byte":
+                    return ofBytes(name, ranged ? Byte.parseByte(parts[1]) : Byte.MIN_VALUE, ranged ? Byte.parseByte(parts[2]) : Byte.MAX_VALUE, unique);
+                case "double":
+                case "float":
+                    if (unique) {
+                        throw new IllegalArgumentException("Only integer columns can be unique: " + spec);
+                    }
+                    final double a = ranged ? Double.parseDouble(parts[1]) : 0;
+                    final double b = ranged ? Double.parseDouble(parts[2]) : 1;
+                    return type.equals("double") ? ofDoubles(name, a, b) : ofFloats(name, (float) a, (float) b);
+                default:
+                    throw new IllegalArgumentException("Unknown column type: " + parts[0]);
+            }
+        } catch (final NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number in column: " + spec, ex);
+        }
+    }
+
+    // -----物件方法-----
+    /**
+     * 取得欄位名稱。
+     *
+     * @return 傳回欄位名稱
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 取得型態。
+     *
+     * @return 傳回型態
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 判斷數值是否不能重複。
+     *
+     * @return 傳回數值是否不能重複
+     */
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * 取得二進位格式中每一列佔用的位元組數量。
+     *
+     * @return 傳回位元組數量
+     */
+    public int getWidth() {
+        return type == Type.BYTES ? length : type.width;
+    }
+
+    /**
+     * 取得整數型態的下限。
+     *
+     * @return 傳回下限
+     */
+    long getLongMin() {
+        return longMin;
+    }
+
+    /**
+     * 取得整數型態的上限。
+     *
+     * @return 傳回上限
+     */
+    long getLongMax() {
+        return longMax;
+    }
+
+    /**
+     * 取得浮點數型態的下限。
+     *
+     * @return 傳回下限
+     */
+    double getDoubleMin() {
+        return doubleMin;
+    }
+
+    /**
+     * 取得浮點數型態的上限。
+     *
+     * @return 傳回上限
+     */
+    double getDoubleMax() {
+        return doubleMax;
+    }
+
+    /**
+     * 取得整數型態範圍內數值的數量。
+     *
+     * @return 傳回數量，視為無號數，0表示2^64
+     */
+    long getRangeSize() {
+        return longMax - longMin + 1;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(name).append('=').append(type.name().toLowerCase(Locale.ROOT));
+        switch (type) {
+            case BYTES:
+                sb.append(':').append(length);
+                break;
+            case DOUBLE:
+            case FLOAT:
+                sb.append(':').append(doubleMin).append(':').append(doubleMax);
+                break;
+            default:
+                sb.append(':').append(longMin).append(':').append(longMax);
+                if (unique) {
+                    sb.append(":unique");
+                }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>
+ * 產生隨機資料集檔案的命令列工具，使用DatasetWriter平行寫入檔案。
+ * </p>
+ *
+ * <p>
+ * 用法：java -cp MagicRandom.jar org.magiclen.magicrandom.DatasetTool -o 檔案 -n 列數 [選項] 欄位規格...，欄位規格的格式請參考DatasetColumn的parse方法。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class DatasetTool {
+
+    // -----類別常數-----
+    /**
+     * 命令列參數不正確時的結束代碼。
+     */
+    private static final int EXIT_USAGE = 2;
+    /**
+     * 寫入檔案失敗時的結束代碼。
+     */
+    private static final int EXIT_IO = 1;
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private DatasetTool() {
+
+    }
+
+    // -----類別方法-----
+    /**
+     * 程式進入點。
+     *
+     * @param args 傳入命令列參數
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args, System.err));
+    }
+
+    /**
+     * 依照命令列參數產生資料集檔案。
+     *
+     * @param args 傳入命令列參數
+     * @param err 傳入輸出訊息使用的串流
+     * @return 傳回結束代碼，成功時為0
+     */
+    static int run(final String[] args, final PrintStream err) {
+        Path output = null;
+        long rows = -1;
+        DatasetWriter.Format format = DatasetWriter.Format.BINARY;
+        long seed = 0;
+        boolean hasSeed = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean memoryMapped = false;
+        final List<DatasetColumn> columns = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                final String arg = args[i];
+                switch (arg) {
+                    case "-h":
+                    case "--help":
+                        printUsage(err);
+                        return 0;
+                    case "-v":
+                    case "--version":
+                        err.println(Version.getVersion());
+                        return 0;
+                    case "-o":
+                    case "--output":
+                        output = Paths.get(value(args, ++i, arg));
+                        break;
+                    case "-n":
+                    case "--rows":
+                        rows = Long.parseLong(value(args, ++i, arg));
+                        break;
+                    case "-f":
+                    case "--format":
+                        format = DatasetWriter.Format.valueOf(value(args, ++i, arg).toUpperCase(Locale.ROOT));
+                        break;
+                    case "-s":
+                    case "--seed":
+                        seed = Long.parseLong(value(args, ++i, arg));
+                        hasSeed = true;
+                        break;
+                    case "-t":
+                    case "--threads":
+                        threads = Integer.parseInt(value(args, ++i, arg));
+                        break;
+                    case "-m":
+                    case "--mmap":
+                        memoryMapped = true;
+                        break;
+                    default:
+                        if (arg.startsWith("-")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        columns.add(DatasetColumn.parse(arg, "c" + columns.size()));
+                }
+            }
+            if (output == null || rows < 0 || columns.isEmpty()) {
+                throw new IllegalArgumentException("The output file, the number of rows and at least one column are required.");
+            }
+            if (!hasSeed) {
+                seed = MagicRandom.randomLong();
+            }
+            final DatasetWriter writer = new DatasetWriter(columns, rows, format, seed);
+            final long startTime = System.nanoTime();
+            final long bytes = writer.write(output, threads, memoryMapped);
+            final double seconds = (System.nanoTime() - startTime) / 1e9;
+            err.printf(Locale.ROOT, "%d rows, %d bytes, seed %d, %.3f s, %.1f MB/s%n", rows, bytes, seed, seconds, bytes / 1e6 / seconds);
+            return 0;
+        } catch (final IllegalArgumentException ex) {
+            err.println(ex.getMessage());
+            err.println("Use --help to see the usage.");
+            return EXIT_USAGE;
+        } catch (final IOException ex) {
+            err.println(ex);
+            return EXIT_IO;
+        }
+    }
+
+    /**
+     * 取得選項的值。
+     *
+     * @param args 傳入命令列參數
+     * @param index 傳入值的索引位置
+     * @param option 傳入選項
+     * @return 傳回選項的值
+     * @throws IllegalArgumentException 選項沒有值的時候將拋出例外
+     */
+    private static String value(final String[] args, final int index, final String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("The option " + option + " needs a value.");
+        }
+        return args[index];
+    }
+
+    /**
+     * 輸出用法。
+     *
+     * @param err 傳入輸出訊息使用的串流
+     */
+    private static void printUsage(final PrintStream err) {
+        err.println("Usage: DatasetTool -o FILE -n ROWS [options] COLUMN...");
+        err.println();
+        err.println("Options:");
+        err.println("  -o, --output FILE      the file to write");
+        err.println("  -n, --rows ROWS        the number of rows");
+        err.println("  -f, --format FORMAT    binary (little-endian fixed-width records) or csv, default binary");
+        err.println("  -s, --seed SEED        the seed, the same seed writes the same file, default random");
+        err.println("  -t, --threads THREADS  the number of threads, default the number of processors");
+        err.println("  -m, --mmap             write binary partitions through memory-mapped regions");
+        err.println("  -v, --version          print the version");
+        err.println("  -h, --help             print this help");
+        err.println();
+        err.println("Columns: [name=]type[:min:max][:unique]");
+        err.println("  type is long, int, short, byte, double or float; bytes:LENGTH for raw bytes");
+        err.println("  unique is only available for integer types");
+        err.println("  e.g. id=long:1:1000000000:unique score=double:0:100 tag=bytes:16");
+    }
+}
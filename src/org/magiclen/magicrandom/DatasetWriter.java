@@ -0,0 +1,640 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.magiclen.magicrandom.engine.RandomEngine;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+import org.magiclen.magicrandom.engine.Xoshiro256StarStarEngine;
+
+/**
+ * <p>
+ * 產生隨機資料集並寫入檔案。資料集由數個欄位組成，每一列的每個欄位都是依照欄位規格產生的亂數。
+ * </p>
+ *
+ * <p>
+ * 資料集被切成固定列數的分割區，每個分割區使用從種子跳躍(jump)分割區編號次的xoshiro256**子序列，在多個執行緒上平行產生，所以檔案的內容只由欄位、列數、格式和種子決定，和執行緒的數量無關。不能重複的欄位使用由種子決定的偽隨機排列，第i列的值就是排列的第i個位置，不同分割區之間不需要互相協調。
+ * </p>
+ *
+ * <p>
+ * 二進位格式是每一列依照欄位的順序緊密排列的固定長度紀錄，使用小端序(little-endian)，分割區的位置可以直接計算，因此每個分割區各自用FileChannel的指定位置寫入，或是寫入記憶體映射(memory-mapped)的區域。CSV格式的第一列是欄位名稱，每個分割區先在記憶體中轉成文字，前一個分割區的長度確定之後，就可以在正確的位置平行寫入。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class DatasetWriter {
+
+    /**
+     * 輸出格式。
+     */
+    public enum Format {
+        /**
+         * 固定長度的二進位紀錄，使用小端序。
+         */
+        BINARY,
+        /**
+         * 以逗號分隔的文字，第一列是欄位名稱。
+         */
+        CSV
+    }
+
+    // -----類別常數-----
+    /**
+     * 每個分割區的目標大小(位元組)。
+     */
+    private static final int TARGET_PARTITION_BYTES = 1 << 22;
+    /**
+     * 每個分割區的最大列數。
+     */
+    private static final int MAX_PARTITION_ROWS = 1 << 20;
+    /**
+     * 每一列的最大長度(位元組)。
+     */
+    private static final int MAX_ROW_WIDTH = 1 << 24;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    // -----物件常數-----
+    private final List<DatasetColumn> columns;
+    private final long rows;
+    private final Format format;
+    private final long seed;
+    private final int rowWidth;
+    private final int csvRowWidth;
+    private final int partitionRows;
+    private final RandomPermutation[] permutations;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param columns 傳入欄位規格
+     * @param rows 傳入列數
+     * @param format 傳入輸出格式
+     * @param seed 傳入種子，相同的種子會產生相同的檔案
+     * @throws IllegalArgumentException 沒有欄位、列數為負數，或是不能重複的欄位的範圍太小的時候將拋出例外
+     */
+    public DatasetWriter(final List<DatasetColumn> columns, final long rows, final Format format, final long seed) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("A dataset needs at least one column.");
+        }
+        if (rows < 0) {
+            throw new IllegalArgumentException("The number of rows can't be negative.");
+        }
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.rows = rows;
+        this.format = format;
+        this.seed = seed;
+
+        final int columnCount = this.columns.size();
+        final SplittableRandomEngine seeds = new SplittableRandomEngine(seed);
+        permutations = new RandomPermutation[columnCount];
+        long width = 0, csvWidth = columnCount;
+        for (int i = 0; i < columnCount; ++i) {
+            final DatasetColumn column = this.columns.get(i);
+            width += column.getWidth();
+            csvWidth += maxTextWidth(column);
+            final long permutationSeed = seeds.nextLong();
+            if (column.isUnique()) {
+                final long size = column.getRangeSize();
+                if (size != 0 && Long.compareUnsigned(rows, size) > 0) {
+                    throw new IllegalArgumentException("The number of rows can't be larger than the range of the unique column " + column.getName() + ".");
+                }
+                permutations[i] = new RandomPermutation(size, permutationSeed);
+            }
+        }
+        if (csvWidth > MAX_ROW_WIDTH) {
+            throw new IllegalArgumentException("A row is too wide.");
+        }
+        rowWidth = (int) width;
+        csvRowWidth = (int) csvWidth;
+        partitionRows = Math.max(1, Math.min(MAX_PARTITION_ROWS, TARGET_PARTITION_BYTES / rowWidth));
+    }
+
+    // -----物件方法-----
+    /**
+     * 取得欄位規格。
+     *
+     * @return 傳回不可修改的欄位規格
+     */
+    public List<DatasetColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 取得列數。
+     *
+     * @return 傳回列數
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * 取得輸出格式。
+     *
+     * @return 傳回輸出格式
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * 取得二進位格式中每一列的位元組數量。
+     *
+     * @return 傳回每一列的位元組數量
+     */
+    public int getRowWidth() {
+        return rowWidth;
+    }
+
+    /**
+     * 產生資料集並寫入檔案。檔案已經存在時會被覆蓋。
+     *
+     * @param path 傳入檔案路徑
+     * @param threads 傳入執行緒數量
+     * @return 傳回寫入的位元組數量
+     * @throws IOException 寫入失敗的時候將拋出例外
+     */
+    public long write(final Path path, final int threads) throws IOException {
+        return write(path, threads, false);
+    }
+
+    /**
+     * 產生資料集並寫入檔案。檔案已經存在時會被覆蓋。
+     *
+     * @param path 傳入檔案路徑
+     * @param threads 傳入執行緒數量
+     * @param memoryMapped 傳入是否要將每個分割區寫入記憶體映射的區域，只有二進位格式可以使用
+     * @return 傳回寫入的位元組數量
+     * @throws IOException 寫入失敗的時候將拋出例外
+     * @throws IllegalArgumentException 執行緒數量不是正數，或是CSV格式使用記憶體映射的時候將拋出例外
+     */
+    public long write(final Path path, final int threads, final boolean memoryMapped) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        }
+        if (memoryMapped && format != Format.BINARY) {
+            throw new IllegalArgumentException("Memory-mapped output is only supported by the binary format.");
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "MagicRandom-DatasetWriter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (final FileChannel channel = memoryMapped ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (format == Format.BINARY) {
+                return writeBinary(channel, pool, threads, memoryMapped);
+            } else {
+                return writeCsv(channel, pool, threads);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 以二進位格式平行寫入所有分割區。
+     *
+     * @param channel 傳入檔案通道
+     * @param pool 傳入執行緒池
+     * @param threads 傳入執行緒數量
+     * @param memoryMapped 傳入是否使用記憶體映射
+     * @return 傳回寫入的位元組數量
+     * @throws IOException 寫入失敗的時候將拋出例外
+     */
+    private long writeBinary(final FileChannel channel, final ExecutorService pool, final int threads, final boolean memoryMapped) throws IOException {
+        final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(partitionRows * rowWidth).order(ByteOrder.LITTLE_ENDIAN));
+        final Semaphore inFlight = new Semaphore(threads * 2);
+        final List<CompletableFuture<?>> tasks = new ArrayList<>();
+        final Xoshiro256StarStarEngine engine = new Xoshiro256StarStarEngine(seed);
+        for (long firstRow = 0; firstRow < rows; firstRow += partitionRows) {
+            if (!acquire(inFlight, tasks)) {
+                break;
+            }
+            final long partitionFirstRow = firstRow;
+            final int count = (int) Math.min(partitionRows, rows - firstRow);
+            final Xoshiro256StarStarEngine partitionEngine = engine.copy();
+            engine.jump();
+            final long position = firstRow * rowWidth;
+            final int length = count * rowWidth;
+            final CompletableFuture<Void> task = CompletableFuture.runAsync(() -> {
+                final Object[] data = generate(partitionFirstRow, count, partitionEngine);
+                try {
+                    if (memoryMapped) {
+                        final ByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, length).order(ByteOrder.LITTLE_ENDIAN);
+                        encodeBinary(data, count, region);
+                    } else {
+                        final ByteBuffer buffer = buffers.get();
+                        buffer.clear();
+                        encodeBinary(data, count, buffer);
+                        buffer.limit(length);
+                        writeFully(channel, buffer, position);
+                    }
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, pool);
+            task.whenComplete((result, ex) -> inFlight.release());
+            tasks.add(task);
+        }
+        join(tasks);
+        return rows * rowWidth;
+    }
+
+    /**
+     * 以CSV格式平行寫入所有分割區。每個分割區的開始位置是前一個分割區的結束位置，只要前一個分割區轉成文字，就可以開始寫入。
+     *
+     * @param channel 傳入檔案通道
+     * @param pool 傳入執行緒池
+     * @param threads 傳入執行緒數量
+     * @return 傳回寫入的位元組數量
+     * @throws IOException 寫入失敗的時候將拋出例外
+     */
+    private long writeCsv(final FileChannel channel, final ExecutorService pool, final int threads) throws IOException {
+        final StringBuilder header = new StringBuilder();
+        for (final DatasetColumn column : columns) {
+            if (header.length() > 0) {
+                header.append(',');
+            }
+            header.append(column.getName());
+        }
+        header.append('\n');
+        final ByteBuffer headerBuffer = ByteBuffer.wrap(header.toString().getBytes(StandardCharsets.UTF_8));
+        final int headerLength = headerBuffer.remaining();
+        writeFully(channel, headerBuffer, 0);
+
+        final Semaphore inFlight = new Semaphore(threads * 2);
+        final List<CompletableFuture<?>> tasks = new ArrayList<>();
+        final Xoshiro256StarStarEngine engine = new Xoshiro256StarStarEngine(seed);
+        CompletableFuture<Long> end = CompletableFuture.completedFuture((long) headerLength);
+        for (long firstRow = 0; firstRow < rows; firstRow += partitionRows) {
+            if (!acquire(inFlight, tasks)) {
+                break;
+            }
+            final long partitionFirstRow = firstRow;
+            final int count = (int) Math.min(partitionRows, rows - firstRow);
+            final Xoshiro256StarStarEngine partitionEngine = engine.copy();
+            engine.jump();
+            final CompletableFuture<ByteBuffer> text = CompletableFuture.supplyAsync(() -> encodeCsv(generate(partitionFirstRow, count, partitionEngine), count), pool);
+            final CompletableFuture<Long> start = end;
+            end = text.thenCombine(start, (buffer, position) -> position + buffer.remaining());
+            final CompletableFuture<Void> task = text.thenAcceptBothAsync(start, (buffer, position) -> {
+                try {
+                    writeFully(channel, buffer, position);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, pool);
+            task.whenComplete((result, ex) -> inFlight.release());
+            tasks.add(task);
+        }
+        join(tasks);
+        return end.join();
+    }
+
+    /**
+     * 產生一個分割區的資料，每個欄位是一個陣列。
+     *
+     * @param firstRow 傳入分割區的第一列
+     * @param count 傳入分割區的列數
+     * @param engine 傳入分割區的亂數引擎
+     * @return 傳回每個欄位的陣列
+     */
+    private Object[] generate(final long firstRow, final int count, final RandomEngine engine) {
+        final MagicRandomGenerator generator = new MagicRandomGenerator(engine);
+        final int columnCount = columns.size();
+        final Object[] data = new Object[columnCount];
+        for (int i = 0; i < columnCount; ++i) {
+            final DatasetColumn column = columns.get(i);
+            final RandomPermutation permutation = permutations[i];
+            final long min = column.getLongMin();
+            switch (column.getType()) {
+                case LONG: {
+                    final long[] values = new long[count];
+                    if (permutation != null) {
+                        for (int r = 0; r < count; ++r) {
+                            values[r] = min + permutation.get(firstRow + r);
+                        }
+                    } else {
+                        generator.fill(values, 0, count, min, column.getLongMax(), false);
+                    }
+                    data[i] = values;
+                    break;
+                }
+                case INTEGER:
+                case SHORT:
+                case BYTE: {
+                    final int[] values = new int[count];
+                    if (permutation != null) {
+                        for (int r = 0; r < count; ++r) {
+                            values[r] = (int) (min + permutation.get(firstRow + r));
+                        }
+                    } else {
+                        generator.fill(values, 0, count, (int) min, (int) column.getLongMax(), false);
+                    }
+                    data[i] = values;
+                    break;
+                }
+                case DOUBLE: {
+                    final double[] values = new double[count];
+                    generator.fill(values, 0, count, column.getDoubleMin(), column.getDoubleMax(), false);
+                    data[i] = values;
+                    break;
+                }
+                case FLOAT: {
+                    final float[] values = new float[count];
+                    generator.fill(values, 0, count, (float) column.getDoubleMin(), (float) column.getDoubleMax(), false);
+                    data[i] = values;
+                    break;
+                }
+                default: {
+                    final byte[] values = new byte[count * column.getWidth()];
+                    generator.fill(values, 0, values.length);
+                    data[i] = values;
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 將一個分割區的資料以二進位格式寫入緩衝區。每個欄位各自以固定的間隔寫入，從緩衝區的索引位置0開始。
+     *
+     * @param data 傳入每個欄位的陣列
+     * @param count 傳入列數
+     * @param buffer 傳入小端序的緩衝區
+     */
+    private void encodeBinary(final Object[] data, final int count, final ByteBuffer buffer) {
+        final int stride = rowWidth;
+        int offset = 0;
+        for (int i = 0; i < data.length; ++i) {
+            final DatasetColumn column = columns.get(i);
+            switch (column.getType()) {
+                case LONG: {
+                    final long[] values = (long[]) data[i];
+                    for (int r = 0, index = offset; r < count; ++r, index += stride) {
+                        buffer.putLong(index, values[r]);
+                    }
+                    break;
+                }
+                case INTEGER: {
+                    final int[] values = (int[]) data[i];
+                    for (int r = 0, index = offset; r < count; ++r, index += stride) {
+                        buffer.putInt(index, values[r]);
+                    }
+                    break;
+                }
+                case SHORT: {
+                    final int[] values = (int[]) data[i];
+                    for (int r = 0, index = offset; r < count; ++r, index += stride) {
+                        buffer.putShort(index, (short) values[r]);
+                    }
+                    break;
+                }
+                case BYTE: {
+                    final int[] values = (int[]) data[i];
+                    for (int r = 0, index = offset; r < count; ++r, index += stride) {
+                        buffer.put(index, (byte) values[r]);
+                    }
+                    break;
+                }
+                case DOUBLE: {
+                    final double[] values = (double[]) data[i];
+                    for (int r = 0, index = offset; r < count; ++r, index += stride) {
+                        buffer.putDouble(index, values[r]);
+                    }
+                    break;
+                }
+                case FLOAT: {
+                    final float[] values = (float[]) data[i];
+                    for (int r = 0, index = offset; r < count; ++r, index += stride) {
+                        buffer.putFloat(index, values[r]);
+                    }
+                    break;
+                }
+                default: {
+                    final byte[] values = (byte[]) data[i];
+                    final int width = column.getWidth();
+                    for (int r = 0, index = offset; r < count; ++r, index += stride) {
+                        buffer.position(index);
+                        buffer.put(values, r * width, width);
+                    }
+                    buffer.position(0);
+                }
+            }
+            offset += column.getWidth();
+        }
+    }
+
+    /**
+     * 將一個分割區的資料轉成CSV格式的文字。
+     *
+     * @param data 傳入每個欄位的陣列
+     * @param count 傳入列數
+     * @return 傳回包含文字的緩衝區
+     */
+    private ByteBuffer encodeCsv(final Object[] data, final int count) {
+        final byte[] text = new byte[count * csvRowWidth];
+        final int columnCount = data.length;
+        int position = 0;
+        for (int r = 0; r < count; ++r) {
+            for (int i = 0; i < columnCount; ++i) {
+                if (i > 0) {
+                    text[position++] = ',';
+                }
+                final DatasetColumn column = columns.get(i);
+                switch (column.getType()) {
+                    case LONG:
+                        position = writeLong(text, position, ((long[]) data[i])[r]);
+                        break;
+                    case INTEGER:
+                    case SHORT:
+                    case BYTE:
+                        position = writeLong(text, position, ((int[]) data[i])[r]);
+                        break;
+                    case DOUBLE:
+                        position = writeAscii(text, position, Double.toString(((double[]) data[i])[r]));
+                        break;
+                    case FLOAT:
+                        position = writeAscii(text, position, Float.toString(((float[]) data[i])[r]));
+                        break;
+                    default: {
+                        final byte[] values = (byte[]) data[i];
+                        final int width = column.getWidth();
+                        for (int j = r * width, end = j + width; j < end; ++j) {
+                            text[position++] = HEX_DIGITS[(values[j] >>> 4) & 0xF];
+                            text[position++] = HEX_DIGITS[values[j] & 0xF];
+                        }
+                    }
+                }
+            }
+            text[position++] = '\n';
+        }
+        return ByteBuffer.wrap(text, 0, position);
+    }
+
+    /**
+     * 取得欄位的數值轉成文字之後的最大長度。
+     *
+     * @param column 傳入欄位規格
+     * @return 傳回最大長度
+     */
+    private static long maxTextWidth(final DatasetColumn column) {
+        switch (column.getType()) {
+            case LONG:
+                return 20;
+            case INTEGER:
+                return 11;
+            case SHORT:
+                return 6;
+            case BYTE:
+                return 4;
+            case DOUBLE:
+                return 25;
+            case FLOAT:
+                return 16;
+            default:
+                return 2L * column.getWidth();
+        }
+    }
+
+    /**
+     * 將長整數以十進位寫入位元組陣列。
+     *
+     * @param text 傳入位元組陣列
+     * @param position 傳入開始寫入的索引位置
+     * @param value 傳入長整數
+     * @return 傳回寫入後的索引位置
+     */
+    private static int writeLong(final byte[] text, int position, long value) {
+        if (value == Long.MIN_VALUE) {
+            System.arraycopy(LONG_MIN_VALUE, 0, text, position, LONG_MIN_VALUE.length);
+            return position + LONG_MIN_VALUE.length;
+        }
+        if (value < 0) {
+            text[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            ++digits;
+        }
+        final int end = position + digits;
+        for (int i = end - 1; i >= position; --i) {
+            text[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * 將只包含ASCII字元的字串寫入位元組陣列。
+     *
+     * @param text 傳入位元組陣列
+     * @param position 傳入開始寫入的索引位置
+     * @param s 傳入字串
+     * @return 傳回寫入後的索引位置
+     */
+    private static int writeAscii(final byte[] text, int position, final String s) {
+        final int length = s.length();
+        for (int i = 0; i < length; ++i) {
+            text[position++] = (byte) s.charAt(i);
+        }
+        return position;
+    }
+
+    /**
+     * 將緩衝區剩餘的資料全部寫入檔案中的指定位置。
+     *
+     * @param channel 傳入檔案通道
+     * @param buffer 傳入緩衝區
+     * @param position 傳入檔案中的位置
+     * @throws IOException 寫入失敗的時候將拋出例外
+     */
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * 等待可以再開始一個分割區。進行中的分割區數量有上限，避免產生速度比寫入速度快的時候佔用太多記憶體。
+     *
+     * @param inFlight 傳入進行中的分割區數量的號誌
+     * @param tasks 傳入已經開始的分割區
+     * @return 傳回是否可以繼續，若已經有分割區失敗，將傳回false
+     * @throws InterruptedIOException 等待時被中斷的時候將拋出例外
+     */
+    private static boolean acquire(final Semaphore inFlight, final List<CompletableFuture<?>> tasks) throws InterruptedIOException {
+        try {
+            inFlight.acquire();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        for (int i = tasks.size() - 1; i >= 0 && i >= tasks.size() - 64; --i) {
+            if (tasks.get(i).isCompletedExceptionally()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 等待所有分割區完成，並將分割區拋出的例外轉成IOException。
+     *
+     * @param tasks 傳入所有分割區
+     * @throws IOException 有分割區寫入失敗的時候將拋出例外
+     */
+    private static void join(final List<CompletableFuture<?>> tasks) throws IOException {
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (final CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.util.concurrent.locks.StampedLock;
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 權重可以變動的抽選器。每個元素被抽中的機率和它目前的權重值成正比，權重值記錄在Fenwick樹(binary indexed tree)中，更新一個元素的權重值和抽選一個元素的時間複雜度都是O(log n)，不需要在權重值改變之後重建整個抽選器。
+ * </p>
+ *
+ * <p>
+ * 抽選使用StampedLock的樂觀讀取，不會阻擋其他的抽選，只有在讀取的過程中權重值被更新時才會改用讀取鎖重新抽選一次；更新權重值時使用寫入鎖，多個執行緒同時更新也是安全的。若使用執行緒安全的亂數引擎，抽選器就是執行緒安全的。為了避免累加浮點數誤差，每更新n次權重值，就會以O(n)的時間重建一次Fenwick樹。
+ * </p>
+ *
+ * @author Magic Len
+ * @param <T> 陣列元素型態
+ */
+public final class DynamicWeightedPicker<T> {
+
+    // -----類別常數-----
+    /**
+     * 連續抽到不可用的結果超過這個次數時，改用逐一累加權重值的方式抽選。
+     */
+    private static final int MAX_MISSES = 16;
+
+    // -----物件常數-----
+    private final RandomEngine engine;
+    private final T[] array;
+    private final double[] weights;
+    /**
+     * Fenwick樹，tree[i]是第(i - (i &amp; -i))到第(i - 1)個元素的權重值總和。
+     */
+    private final double[] tree;
+    /**
+     * 小於或等於元素數量的最大的2的次方，用來從樹根往下尋找。
+     */
+    private final int topStep;
+    private final StampedLock lock = new StampedLock();
+
+    // -----物件變數-----
+    private double totalWeight;
+    private int positiveCount;
+    private int updatesSinceRebuild;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用MagicRandom的預設產生器的亂數引擎。
+     *
+     * @param array 傳入陣列
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     */
+    public DynamicWeightedPicker(final T[] array, final double... weights) {
+        this(MagicRandom.getDefaultGenerator().getEngine(), array, weights);
+    }
+
+    /**
+     * 建構子。初始的權重值和WeightedPicker相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值；權重值的數量和元素數量相同時，就是每個元素各自的權重值。
+     *
+     * @param engine 傳入亂數引擎
+     * @param array 傳入陣列
+     * @param weights 傳入抽選區域的權重值，負數將被取絕對值，若為null或是沒有權重值，表示所有元素的權重相同
+     */
+    public DynamicWeightedPicker(final RandomEngine engine, final T[] array, double... weights) {
+        if (engine == null) {
+            throw new NullPointerException("The engine can't be null.");
+        }
+        if (array == null) {
+            throw new NullPointerException("The array can't be null.");
+        }
+        final int arrayLength = array.length;
+        if (arrayLength == 0) {
+            throw new RuntimeException("Array is empty.");
+        }
+        if (weights == null || weights.length == 0) {
+            weights = new double[]{1};
+        }
+        this.engine = engine;
+        this.array = array.clone();
+        this.weights = new double[arrayLength];
+        final double[] elementWeights = WeightedSampler.elementWeights(arrayLength, weights);
+        for (int i = 0; i < arrayLength; ++i) {
+            this.weights[i] = checkWeight(elementWeights[i]);
+        }
+        tree = new double[arrayLength + 1];
+        topStep = Integer.highestOneBit(arrayLength);
+        rebuild();
+        if (Double.isInfinite(totalWeight)) {
+            throw new IllegalArgumentException("The weights must be finite.");
+        }
+    }
+
+    // -----物件方法-----
+    /**
+     * 隨機抽選出一個元素。
+     *
+     * @return 傳回抽選出來的元素，若所有權重值都是0，將傳回null
+     */
+    public T pick() {
+        final int index = pickIndex();
+        return index < 0 ? null : array[index];
+    }
+
+    /**
+     * 隨機抽選出一個元素的索引。
+     *
+     * @return 傳回抽選出來的元素的索引，若所有權重值都是0，將傳回-1
+     */
+    public int pickIndex() {
+        for (int misses = 0; misses < MAX_MISSES; ++misses) {
+            final double rnd = engine.nextDouble();
+            long stamp = lock.tryOptimisticRead();
+            int index = find(rnd);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    index = find(rnd);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            // 浮點數誤差可能會讓結果落在權重值為0的元素上，此時重新抽選
+            if (index != Integer.MIN_VALUE) {
+                return index;
+            }
+        }
+        // 一直抽不到可用的結果時，不再依賴Fenwick樹，確保一定會結束
+        final double rnd = engine.nextDouble();
+        final long stamp = lock.readLock();
+        try {
+            return scan(rnd);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 從樹根往下尋找前綴和超過rnd乘上權重值總和的第一個元素。
+     *
+     * @param rnd 傳入[0, 1)範圍內的亂數
+     * @return 傳回元素的索引；若所有權重值都是0，傳回-1；若結果不可用，傳回Integer.MIN_VALUE
+     */
+    private int find(final double rnd) {
+        if (positiveCount == 0) {
+            return -1;
+        }
+        final int n = array.length;
+        double target = rnd * totalWeight;
+        int position = 0;
+        for (int step = topStep; step > 0; step >>>= 1) {
+            final int next = position + step;
+            if (next <= n && tree[next] <= target) {
+                target -= tree[next];
+                position = next;
+            }
+        }
+        if (position >= n || weights[position] == 0) {
+            return Integer.MIN_VALUE;
+        }
+        return position;
+    }
+
+    /**
+     * 逐一累加權重值，找出前綴和超過rnd乘上權重值總和的第一個元素，時間複雜度為O(n)。呼叫時必須持有讀取鎖或寫入鎖。
+     *
+     * @param rnd 傳入[0, 1)範圍內的亂數
+     * @return 傳回元素的索引；若所有權重值都是0，傳回-1
+     */
+    private int scan(final double rnd) {
+        final int n = array.length;
+        double sum = 0;
+        for (final double weight : weights) {
+            sum += weight;
+        }
+        final double target = rnd * sum;
+        double prefix = 0;
+        int last = -1;
+        for (int i = 0; i < n; ++i) {
+            final double weight = weights[i];
+            if (weight > 0) {
+                prefix += weight;
+                if (prefix > target) {
+                    return i;
+                }
+                last = i;
+            }
+        }
+        // 浮點數誤差讓前綴和沒有超過target時，選擇最後一個權重值不為0的元素
+        return last;
+    }
+
+    /**
+     * 更新一個元素的權重值。
+     *
+     * @param index 傳入元素的索引
+     * @param weight 傳入新的權重值，負數將被取絕對值
+     * @throws ArrayIndexOutOfBoundsException 索引超出範圍的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值，或是更新後的權重值總和不是有限數值的時候將拋出例外
+     */
+    public void updateWeight(final int index, final double weight) {
+        if (index < 0 || index >= array.length) {
+            throw new ArrayIndexOutOfBoundsException("The index is out of the array.");
+        }
+        final double newWeight = checkWeight(weight);
+        final long stamp = lock.writeLock();
+        try {
+            final double oldWeight = weights[index];
+            if (oldWeight == newWeight) {
+                return;
+            }
+            final double delta = newWeight - oldWeight;
+            // 先檢查權重值總和，溢位時不改變任何狀態
+            if (Double.isInfinite(totalWeight + delta)) {
+                throw new IllegalArgumentException("The sum of the weights must be finite.");
+            }
+            weights[index] = newWeight;
+            if (oldWeight == 0) {
+                ++positiveCount;
+            } else if (newWeight == 0) {
+                --positiveCount;
+            }
+            if (++updatesSinceRebuild >= array.length) {
+                rebuild();
+            } else {
+                final int n = array.length;
+                for (int i = index + 1; i <= n; i += i & -i) {
+                    tree[i] += delta;
+                }
+                totalWeight += delta;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 取得一個元素目前的權重值。
+     *
+     * @param index 傳入元素的索引
+     * @return 傳回權重值
+     * @throws ArrayIndexOutOfBoundsException 索引超出範圍的時候將拋出例外
+     */
+    public double getWeight(final int index) {
+        if (index < 0 || index >= array.length) {
+            throw new ArrayIndexOutOfBoundsException("The index is out of the array.");
+        }
+        final long stamp = lock.readLock();
+        try {
+            return weights[index];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 取得目前的權重值總和。
+     *
+     * @return 傳回權重值總和
+     */
+    public double getTotalWeight() {
+        final long stamp = lock.readLock();
+        try {
+            return totalWeight;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 取得抽選器的元素數量。
+     *
+     * @return 傳回元素數量
+     */
+    public int size() {
+        return array.length;
+    }
+
+    /**
+     * 依照目前的權重值重建Fenwick樹，同時重新計算權重值總和，消除累加的浮點數誤差。呼叫時必須持有寫入鎖，或是在建構子中。
+     */
+    private void rebuild() {
+        final int n = array.length;
+        double sum = 0;
+        int count = 0;
+        for (int i = 1; i <= n; ++i) {
+            final double weight = weights[i - 1];
+            tree[i] = weight;
+            sum += weight;
+            if (weight > 0) {
+                ++count;
+            }
+        }
+        for (int i = 1; i <= n; ++i) {
+            final int parent = i + (i & -i);
+            if (parent <= n) {
+                tree[parent] += tree[i];
+            }
+        }
+        totalWeight = sum;
+        positiveCount = count;
+        updatesSinceRebuild = 0;
+    }
+
+    /**
+     * 檢查權重值，並取得絕對值。
+     *
+     * @param weight 傳入權重值
+     * @return 傳回權重值的絕對值
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    private static double checkWeight(final double weight) {
+        if (Double.isNaN(weight) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("The weights must be finite.");
+        }
+        return Math.abs(weight);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+/**
+ * 不會裝箱的長整數集合，使用開放定址法(線性探測)。容量在建構時就決定，不會自動擴充。
+ *
+ * @author Magic Len
+ */
+final class LongHashSet {
+
+    // -----類別常數-----
+    /**
+     * 表示空位的值。真正的0另外使用containsZero記錄。
+     */
+    private static final long EMPTY = 0;
+    /**
+     * 表格的最大容量，是陣列能配置的最大的2的次方。
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * 最多能放入的元素數量。容量達到上限時，負載因子最高放寬到0.75。
+     */
+    static final int MAX_SIZE = MAX_CAPACITY / 4 * 3;
+
+    // -----物件常數-----
+    private final long[] table;
+    private final int mask;
+    private final int shift;
+
+    // -----物件變數-----
+    private boolean containsZero;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param expectedSize 傳入最多會放入的元素數量
+     * @throws ArrayIndexOutOfBoundsException 元素數量超過MAX_SIZE的時候將拋出例外
+     */
+    LongHashSet(final int expectedSize) {
+        if (expectedSize > MAX_SIZE) {
+            throw new ArrayIndexOutOfBoundsException("The set is too large.");
+        }
+        // 負載因子保持在0.5以下，用長整數計算避免溢位
+        final int capacity = (int) Math.max(16, Math.min(MAX_CAPACITY, (long) Integer.highestOneBit(Math.max(1, expectedSize) - 1) << 2));
+        table = new long[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    // -----物件方法-----
+    /**
+     * 加入一個長整數。
+     *
+     * @param value 傳入長整數
+     * @return 傳回集合是否因此改變，若數值已經存在，將傳回false
+     */
+    boolean add(final long value) {
+        if (value == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            return true;
+        }
+        int index = (int) ((value * 0x9E3779B97F4A7C15L) >>> shift);
+        long current;
+        while ((current = table[index]) != EMPTY) {
+            if (current == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        return true;
+    }
+}
@@ -17,7 +17,16 @@
  */
 package org.magiclen.magicrandom;
 
-import java.util.TreeSet;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.magiclen.magicrandom.engine.ThreadLocalRandomEngine;
 
 /**
  * <p>
@@ -29,24 +38,37 @@ import java.util.TreeSet;
  * <li>可以調整隨機出現的機率。</li>
  * </ol>
  *
+ * <p>
+ * 所有的靜態方法都會交給預設的產生器處理，預設的產生器是執行緒安全的，且每個執行緒的亂數狀態互相獨立。如果需要指定亂數引擎，請使用MagicRandomGenerator。
+ * </p>
+ *
  * @author Magic Len
  */
 public class MagicRandom {
 
     // -----類別常數-----
     /**
-     * 正規化權重值總和。
+     * 靜態方法使用的預設產生器。每個執行緒各自擁有亂數狀態，多個執行緒同時呼叫也不會互相競爭。
      */
-    private static final double NORMAL_WEIGHT_SUM = 100000;
+    private static final MagicRandomGenerator DEFAULT_GENERATOR = new MagicRandomGenerator(ThreadLocalRandomEngine.getInstance());
 
     // -----類別方法-----
+    /**
+     * 取得靜態方法使用的預設產生器。預設的產生器可以被多個執行緒共用。
+     *
+     * @return 傳回預設產生器
+     */
+    public static MagicRandomGenerator getDefaultGenerator() {
+        return DEFAULT_GENERATOR;
+    }
+
     /**
      * 隨機取得一個長整數。
      *
      * @return 傳回隨機取得的長整數
      */
     public static long randomLong() {
-        return (long) (Math.random() * Math.pow(2, 64) + Long.MIN_VALUE);
+        return DEFAULT_GENERATOR.randomLong();
     }
 
     /**
@@ -57,17 +79,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的長整數
      */
     public static long randomLong(final long a, final long b) {
-        final double rnd = Math.random();
-        if (b >= a) {
-            if (b == Long.MAX_VALUE && a == Long.MIN_VALUE) {
-                return randomLong();
-            }
-            return (long) (rnd * (b - a + 1) + a);
-        }
-        if (a == Long.MAX_VALUE && b == Long.MIN_VALUE) {
-            return randomLong();
-        }
-        return (long) (rnd * (a - b + 1) + b);
+        return DEFAULT_GENERATOR.randomLong(a, b);
     }
 
     /**
@@ -79,11 +91,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static long[] randomLongArray(final long a, final long b) {
-        final double size = Math.abs((double) a - (double) b) + 1;
-        if (size > Integer.MAX_VALUE) {
-            throw new ArrayIndexOutOfBoundsException("Array is too long.");
-        }
-        return randomLongArray(a, b, (int) size, true);
+        return DEFAULT_GENERATOR.randomLongArray(a, b);
     }
 
     /**
@@ -96,7 +104,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static long[] randomLongArray(final long a, final long b, final int length) {
-        return randomLongArray(a, b, length, true);
+        return DEFAULT_GENERATOR.randomLongArray(a, b, length);
     }
 
     /**
@@ -110,50 +118,47 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static long[] randomLongArray(final long a, final long b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
-        if (length < 0) {
-            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
-        }
-        final long[] array = new long[length];
-        long max, min;
-        if (b >= a) {
-            max = b;
-            min = a;
-        } else {
-            max = a;
-            min = b;
-        }
-        double size = Math.abs((double) a - (double) b) + 1;
-        if (unique) {
-            if (length > size) {
-                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
-            }
-            final TreeSet<Long> tempTreeSet = new TreeSet<>();
-            for (int i = 0; i < length; ++i) {
-                long value = (long) (Math.random() * size + min);
-                while (tempTreeSet.contains(value)) {
-                    if (value == max) {
-                        value = min;
-                    } else {
-                        value++;
-                    }
-                }
-                if (value == max) {
-                    --max;
-                    --size;
-                }
-                if (value == min) {
-                    ++min;
-                    --size;
-                }
-                tempTreeSet.add(value);
-                array[i] = value;
-            }
-        } else {
-            for (int i = 0; i < length; ++i) {
-                array[i] = (byte) (Math.random() * size + min);
-            }
-        }
-        return array;
+        return DEFAULT_GENERATOR.randomLongArray(a, b, length, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生長整數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public static void fill(final long[] dest, final int offset, final int length, final long a, final long b, final boolean unique) {
+        DEFAULT_GENERATOR.fill(dest, offset, length, a, b, unique);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有長整數的隨機排列。先依序填入範圍內的長整數，再就地洗牌。
+     *
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回隨機排列的長整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static long[] permutation(final long a, final long b) {
+        return DEFAULT_GENERATOR.permutation(a, b);
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有長整數的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public static void permutation(final long[] dest, final int offset, final long a, final long b) {
+        DEFAULT_GENERATOR.permutation(dest, offset, a, b);
     }
 
     /**
@@ -162,7 +167,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的整數
      */
     public static int randomInteger() {
-        return (int) (Math.random() * 4294967296l + -2147483648);
+        return DEFAULT_GENERATOR.randomInteger();
     }
 
     /**
@@ -173,17 +178,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的整數
      */
     public static int randomInteger(final int a, final int b) {
-        final double rnd = Math.random();
-        if (b >= a) {
-            if (b == Integer.MAX_VALUE && a == Integer.MIN_VALUE) {
-                return randomInteger();
-            }
-            return (int) (rnd * (b - a + 1) + a);
-        }
-        if (a == Integer.MAX_VALUE && b == Integer.MIN_VALUE) {
-            return randomInteger();
-        }
-        return (int) (rnd * (a - b + 1) + b);
+        return DEFAULT_GENERATOR.randomInteger(a, b);
     }
 
     /**
@@ -195,11 +190,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static int[] randomIntegerArray(final int a, final int b) {
-        final double size = Math.abs((double) a - (double) b) + 1;
-        if (size > Integer.MAX_VALUE) {
-            throw new ArrayIndexOutOfBoundsException("Array is too long.");
-        }
-        return randomIntegerArray(a, b, (int) size, true);
+        return DEFAULT_GENERATOR.randomIntegerArray(a, b);
     }
 
     /**
@@ -212,7 +203,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static int[] randomIntegerArray(final int a, final int b, final int length) {
-        return randomIntegerArray(a, b, length, true);
+        return DEFAULT_GENERATOR.randomIntegerArray(a, b, length);
     }
 
     /**
@@ -226,50 +217,47 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static int[] randomIntegerArray(final int a, final int b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
-        if (length < 0) {
-            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
-        }
-        final int[] array = new int[length];
-        int max, min;
-        if (b >= a) {
-            max = b;
-            min = a;
-        } else {
-            max = a;
-            min = b;
-        }
-        double size = Math.abs((double) a - (double) b) + 1;
-        if (unique) {
-            if (length > size) {
-                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
-            }
-            final TreeSet<Integer> tempTreeSet = new TreeSet<>();
-            for (int i = 0; i < length; ++i) {
-                int value = (int) (Math.random() * size + min);
-                while (tempTreeSet.contains(value)) {
-                    if (value == max) {
-                        value = min;
-                    } else {
-                        value++;
-                    }
-                }
-                if (value == max) {
-                    --max;
-                    --size;
-                }
-                if (value == min) {
-                    ++min;
-                    --size;
-                }
-                tempTreeSet.add(value);
-                array[i] = value;
-            }
-        } else {
-            for (int i = 0; i < length; ++i) {
-                array[i] = (byte) (Math.random() * size + min);
-            }
-        }
-        return array;
+        return DEFAULT_GENERATOR.randomIntegerArray(a, b, length, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生整數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public static void fill(final int[] dest, final int offset, final int length, final int a, final int b, final boolean unique) {
+        DEFAULT_GENERATOR.fill(dest, offset, length, a, b, unique);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有整數的隨機排列。先依序填入範圍內的整數，再就地洗牌。
+     *
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回隨機排列的整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static int[] permutation(final int a, final int b) {
+        return DEFAULT_GENERATOR.permutation(a, b);
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有整數的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public static void permutation(final int[] dest, final int offset, final int a, final int b) {
+        DEFAULT_GENERATOR.permutation(dest, offset, a, b);
     }
 
     /**
@@ -278,7 +266,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的短整數
      */
     public static short randomShort() {
-        return (short) (Math.random() * 65536 + -32768);
+        return DEFAULT_GENERATOR.randomShort();
     }
 
     /**
@@ -289,11 +277,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的整數
      */
     public static short randomShort(final short a, final short b) {
-        final double rnd = Math.random();
-        if (b >= a) {
-            return (short) (rnd * (b - a + 1) + a);
-        }
-        return (short) (rnd * (a - b + 1) + b);
+        return DEFAULT_GENERATOR.randomShort(a, b);
     }
 
     /**
@@ -305,7 +289,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static short[] randomShortArray(final short a, final short b) {
-        return randomShortArray(a, b, Math.abs(a - b) + 1, true);
+        return DEFAULT_GENERATOR.randomShortArray(a, b);
     }
 
     /**
@@ -318,7 +302,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static short[] randomShortArray(final short a, final short b, final int length) {
-        return randomShortArray(a, b, length, true);
+        return DEFAULT_GENERATOR.randomShortArray(a, b, length);
     }
 
     /**
@@ -332,50 +316,47 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static short[] randomShortArray(final short a, final short b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
-        if (length < 0) {
-            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
-        }
-        final short[] array = new short[length];
-        short max, min;
-        if (b >= a) {
-            max = b;
-            min = a;
-        } else {
-            max = a;
-            min = b;
-        }
-        int size = max - min + 1;
-        if (unique) {
-            if (length > size) {
-                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
-            }
-            final TreeSet<Short> tempTreeSet = new TreeSet<>();
-            for (int i = 0; i < length; ++i) {
-                short value = (short) (Math.random() * size + min);
-                while (tempTreeSet.contains(value)) {
-                    if (value == max) {
-                        value = min;
-                    } else {
-                        value++;
-                    }
-                }
-                if (value == max) {
-                    --max;
-                    --size;
-                }
-                if (value == min) {
-                    ++min;
-                    --size;
-                }
-                tempTreeSet.add(value);
-                array[i] = value;
-            }
-        } else {
-            for (int i = 0; i < length; ++i) {
-                array[i] = (byte) (Math.random() * size + min);
-            }
-        }
-        return array;
+        return DEFAULT_GENERATOR.randomShortArray(a, b, length, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生短整數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public static void fill(final short[] dest, final int offset, final int length, final short a, final short b, final boolean unique) {
+        DEFAULT_GENERATOR.fill(dest, offset, length, a, b, unique);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有短整數的隨機排列。先依序填入範圍內的短整數，再就地洗牌。
+     *
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @return 傳回隨機排列的短整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static short[] permutation(final short a, final short b) {
+        return DEFAULT_GENERATOR.permutation(a, b);
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有短整數的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public static void permutation(final short[] dest, final int offset, final short a, final short b) {
+        DEFAULT_GENERATOR.permutation(dest, offset, a, b);
     }
 
     /**
@@ -384,7 +365,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的位元組
      */
     public static byte randomByte() {
-        return (byte) (Math.random() * 256 + -128);
+        return DEFAULT_GENERATOR.randomByte();
     }
 
     /**
@@ -395,11 +376,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的位元組
      */
     public static byte randomByte(final byte a, final byte b) {
-        final double rnd = Math.random();
-        if (b >= a) {
-            return (byte) (rnd * (b - a + 1) + a);
-        }
-        return (byte) (rnd * (a - b + 1) + b);
+        return DEFAULT_GENERATOR.randomByte(a, b);
     }
 
     /**
@@ -411,7 +388,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static byte[] randomByteArray(final byte a, final byte b) {
-        return randomByteArray(a, b, Math.abs(a - b) + 1, true);
+        return DEFAULT_GENERATOR.randomByteArray(a, b);
     }
 
     /**
@@ -424,7 +401,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static byte[] randomByteArray(final byte a, final byte b, final int length) {
-        return randomByteArray(a, b, length, true);
+        return DEFAULT_GENERATOR.randomByteArray(a, b, length);
     }
 
     /**
@@ -438,50 +415,81 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static byte[] randomByteArray(final byte a, final byte b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
-        if (length < 0) {
-            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
-        }
-        final byte[] array = new byte[length];
-        byte max, min;
-        if (b >= a) {
-            max = b;
-            min = a;
-        } else {
-            max = a;
-            min = b;
-        }
-        int size = max - min + 1;
-        if (unique) {
-            if (length > size) {
-                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
-            }
-            final TreeSet<Byte> tempTreeSet = new TreeSet<>();
-            for (int i = 0; i < length; ++i) {
-                byte value = (byte) (Math.random() * size + min);
-                while (tempTreeSet.contains(value)) {
-                    if (value == max) {
-                        value = min;
-                    } else {
-                        value++;
-                    }
-                }
-                if (value == max) {
-                    --max;
-                    --size;
-                }
-                if (value == min) {
-                    ++min;
-                    --size;
-                }
-                tempTreeSet.add(value);
-                array[i] = value;
-            }
-        } else {
-            for (int i = 0; i < length; ++i) {
-                array[i] = (byte) (Math.random() * size + min);
-            }
-        }
-        return array;
+        return DEFAULT_GENERATOR.randomByteArray(a, b, length, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生位元組，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public static void fill(final byte[] dest, final int offset, final int length, final byte a, final byte b, final boolean unique) {
+        DEFAULT_GENERATOR.fill(dest, offset, length, a, b, unique);
+    }
+
+    /**
+     * 隨機產生位元組，寫入陣列中的一段範圍。每次從亂數引擎取得的64位元亂數都會被完整用來產生8個位元組。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fill(final byte[] dest, final int offset, final int length) {
+        DEFAULT_GENERATOR.fill(dest, offset, length);
+    }
+
+    /**
+     * 隨機產生位元組，填滿緩衝區從目前位置(position)到限制(limit)之間的空間，完成後位置會被移到限制。緩衝區可以是堆積或是直接(direct)緩衝區，每次從亂數引擎取得的64位元亂數都會被完整用來產生8個位元組。
+     *
+     * @param buffer 傳入緩衝區
+     * @throws java.nio.ReadOnlyBufferException 緩衝區是唯讀的時候將拋出例外
+     */
+    public static void fill(final ByteBuffer buffer) {
+        DEFAULT_GENERATOR.fill(buffer);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生位元組，填滿緩衝區從目前位置(position)到限制(limit)之間的空間，完成後位置會被移到限制。
+     *
+     * @param buffer 傳入緩衝區
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @throws java.nio.ReadOnlyBufferException 緩衝區是唯讀的時候將拋出例外
+     */
+    public static void fill(final ByteBuffer buffer, final byte a, final byte b) {
+        DEFAULT_GENERATOR.fill(buffer, a, b);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有位元組的隨機排列。先依序填入範圍內的位元組，再就地洗牌。
+     *
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @return 傳回隨機排列的位元組陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static byte[] permutation(final byte a, final byte b) {
+        return DEFAULT_GENERATOR.permutation(a, b);
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有位元組的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public static void permutation(final byte[] dest, final int offset, final byte a, final byte b) {
+        DEFAULT_GENERATOR.permutation(dest, offset, a, b);
     }
 
     /**
@@ -490,7 +498,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的雙倍精準浮點數
      */
     public static double randomDouble() {
-        return Double.longBitsToDouble(randomLong());
+        return DEFAULT_GENERATOR.randomDouble();
     }
 
     /**
@@ -501,12 +509,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的雙倍精準浮點數
      */
     public static double randomDouble(final double a, final double b) {
-        final double rnd = Math.random();
-        if (b >= a) {
-            return rnd * (b - a) + a;
-        } else {
-            return rnd * (a - b) + b;
-        }
+        return DEFAULT_GENERATOR.randomDouble(a, b);
     }
 
     /**
@@ -519,7 +522,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static double[] randomDoubleArray(final double a, final double b, final int length) {
-        return randomDoubleArray(a, b, length, true);
+        return DEFAULT_GENERATOR.randomDoubleArray(a, b, length);
     }
 
     /**
@@ -533,38 +536,22 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static double[] randomDoubleArray(final double a, final double b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
-        if (length < 0) {
-            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
-        }
-        final double[] array = new double[length];
-        final double max, min;
-        if (b >= a) {
-            max = b;
-            min = a;
-        } else {
-            max = a;
-            min = b;
-        }
-        final double size = max - min;
-        if (unique) {
-            if (max == min && length > 1) {
-                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than 1.");
-            }
-            final TreeSet<Double> tempTreeSet = new TreeSet<>();
-            for (int i = 0; i < length; ++i) {
-                double value = Math.random() * size + min;
-                while (tempTreeSet.contains(value)) {
-                    value = Math.random() * size + min;
-                }
-                tempTreeSet.add(value);
-                array[i] = value;
-            }
-        } else {
-            for (int i = 0; i < length; ++i) {
-                array[i] = Math.random() * size + min;
-            }
-        }
-        return array;
+        return DEFAULT_GENERATOR.randomDoubleArray(a, b, length, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生雙倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public static void fill(final double[] dest, final int offset, final int length, final double a, final double b, final boolean unique) {
+        DEFAULT_GENERATOR.fill(dest, offset, length, a, b, unique);
     }
 
     /**
@@ -573,7 +560,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的單倍精準浮點數
      */
     public static float randomFloat() {
-        return Float.intBitsToFloat(randomInteger());
+        return DEFAULT_GENERATOR.randomFloat();
     }
 
     /**
@@ -584,12 +571,7 @@ public class MagicRandom {
      * @return 傳回隨機取得的單倍精準浮點數
      */
     public static float randomFloat(final float a, final float b) {
-        final double rnd = Math.random();
-        if (b >= a) {
-            return (float) (rnd * (b - a) + a);
-        } else {
-            return (float) (rnd * (a - b) + b);
-        }
+        return DEFAULT_GENERATOR.randomFloat(a, b);
     }
 
     /**
@@ -602,7 +584,7 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static float[] randomFloatArray(final float a, final float b, final int length) {
-        return randomFloatArray(a, b, length, true);
+        return DEFAULT_GENERATOR.randomFloatArray(a, b, length);
     }
 
     /**
@@ -616,38 +598,341 @@ public class MagicRandom {
      * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
      */
     public static float[] randomFloatArray(final float a, final float b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
-        if (length < 0) {
-            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
-        }
-        final float[] array = new float[length];
-        final float max, min;
-        if (b >= a) {
-            max = b;
-            min = a;
-        } else {
-            max = a;
-            min = b;
-        }
-        final float size = max - min;
-        if (unique) {
-            if (max == min && length > 1) {
-                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than 1.");
-            }
-            final TreeSet<Float> tempTreeSet = new TreeSet<>();
-            for (int i = 0; i < length; ++i) {
-                float value = (float) (Math.random() * size + min);
-                while (tempTreeSet.contains(value)) {
-                    value = (float) (Math.random() * size + min);
-                }
-                tempTreeSet.add(value);
-                array[i] = value;
-            }
-        } else {
-            for (int i = 0; i < length; ++i) {
-                array[i] = (float) (Math.random() * size + min);
-            }
-        }
-        return array;
+        return DEFAULT_GENERATOR.randomFloatArray(a, b, length, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生單倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public static void fill(final float[] dest, final int offset, final int length, final float a, final float b, final boolean unique) {
+        DEFAULT_GENERATOR.fill(dest, offset, length, a, b, unique);
+    }
+
+    /**
+     * 隨機取得一個標準常態分布(平均數為0，標準差為1)的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public static double randomGaussian() {
+        return DEFAULT_GENERATOR.randomGaussian();
+    }
+
+    /**
+     * 隨機取得一個常態分布的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @param mean 傳入平均數
+     * @param standardDeviation 傳入標準差
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public static double randomGaussian(final double mean, final double standardDeviation) {
+        return DEFAULT_GENERATOR.randomGaussian(mean, standardDeviation);
+    }
+
+    /**
+     * 隨機產生常態分布的雙倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param mean 傳入平均數
+     * @param standardDeviation 傳入標準差
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fillGaussian(final double[] dest, final int offset, final int length, final double mean, final double standardDeviation) {
+        DEFAULT_GENERATOR.fillGaussian(dest, offset, length, mean, standardDeviation);
+    }
+
+    /**
+     * 隨機取得一個平均數為1的指數分布的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public static double randomExponential() {
+        return DEFAULT_GENERATOR.randomExponential();
+    }
+
+    /**
+     * 隨機取得一個指數分布的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @param mean 傳入平均數(1/λ)
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public static double randomExponential(final double mean) {
+        return DEFAULT_GENERATOR.randomExponential(mean);
+    }
+
+    /**
+     * 隨機產生指數分布的雙倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param mean 傳入平均數(1/λ)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fillExponential(final double[] dest, final int offset, final int length, final double mean) {
+        DEFAULT_GENERATOR.fillExponential(dest, offset, length, mean);
+    }
+
+    /**
+     * 隨機取得一個卜瓦松分布的長整數。平均數小於10時使用逆變換法，否則使用Hörmann的PTRS演算法，期望的時間複雜度和平均數無關。只會保留最近一次使用的平均數的常數，平均數一直改變時，每次呼叫都要重新計算，大量產生時請使用fillPoisson方法。
+     *
+     * @param mean 傳入平均數(λ)，必須是有限的非負數
+     * @return 傳回隨機取得的長整數
+     * @throws IllegalArgumentException 平均數不合法的時候將拋出例外
+     */
+    public static long randomPoisson(final double mean) {
+        return DEFAULT_GENERATOR.randomPoisson(mean);
+    }
+
+    /**
+     * 隨機產生卜瓦松分布的長整數，寫入陣列中的一段範圍。不會配置新的陣列。和平均數有關的常數只會計算一次。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param mean 傳入平均數(λ)，必須是有限的非負數
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     * @throws IllegalArgumentException 平均數不合法的時候將拋出例外
+     */
+    public static void fillPoisson(final long[] dest, final int offset, final int length, final double mean) {
+        DEFAULT_GENERATOR.fillPoisson(dest, offset, length, mean);
+    }
+
+    /**
+     * 隨機取得一個Zipf分布的整數，k被抽中的機率和1/k^s成正比。使用Hörmann和Derflinger的拒絕逆變換法，期望的時間複雜度和元素數量無關。只會保留最近一次使用的參數的常數，參數一直改變時，每次呼叫都要重新計算，大量產生時請使用fillZipf方法。
+     *
+     * @param numberOfElements 傳入元素數量n，必須大於0
+     * @param exponent 傳入指數s，必須是有限的非負數，0表示均勻分布
+     * @return 傳回隨機取得的1~n的整數
+     * @throws IllegalArgumentException 參數不合法的時候將拋出例外
+     */
+    public static int randomZipf(final int numberOfElements, final double exponent) {
+        return DEFAULT_GENERATOR.randomZipf(numberOfElements, exponent);
+    }
+
+    /**
+     * 隨機產生Zipf分布的整數，寫入陣列中的一段範圍。不會配置新的陣列。由元素數量和指數決定的常數只會計算一次。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param numberOfElements 傳入元素數量n，必須大於0
+     * @param exponent 傳入指數s，必須是有限的非負數，0表示均勻分布
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     * @throws IllegalArgumentException 參數不合法的時候將拋出例外
+     */
+    public static void fillZipf(final int[] dest, final int offset, final int length, final int numberOfElements, final double exponent) {
+        DEFAULT_GENERATOR.fillZipf(dest, offset, length, numberOfElements, exponent);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final long[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final long[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final int[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final int[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final short[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final short[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final byte[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final byte[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final double[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final double[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final float[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final float[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final char[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final char[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public static void shuffle(final boolean[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final boolean[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     */
+    public static <T> void shuffle(final T[] array) {
+        DEFAULT_GENERATOR.shuffle(array);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用預設產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static <T> void shuffle(final T[] array, final int offset, final int length) {
+        DEFAULT_GENERATOR.shuffle(array, offset, length);
+    }
+
+    /**
+     * 將列表就地洗牌。可以隨機存取(RandomAccess)的列表會直接交換元素；其它列表會先複製到陣列中洗牌，再依序寫回，避免O(n^2)的存取時間。
+     *
+     * @param list 傳入列表
+     * @throws UnsupportedOperationException 列表不支援set方法的時候將拋出例外
+     */
+    public static void shuffle(final List<?> list) {
+        DEFAULT_GENERATOR.shuffle(list);
     }
 
     /**
@@ -658,7 +943,7 @@ public class MagicRandom {
      * @return 傳回抽選出來的元素，若沒有元素被抽中，將傳回null
      */
     public static <T> T singlePickFromArray(final T[] array) {
-        return singlePickFromArray(array, null);
+        return DEFAULT_GENERATOR.singlePickFromArray(array);
     }
 
     /**
@@ -668,46 +953,257 @@ public class MagicRandom {
      * @param array 傳入陣列
      * @param weights 傳入抽選區域的權重值
      * @return 傳回抽選出來的元素，若沒有元素被抽中，將傳回null
+     * @see WeightedPicker
      */
     public static <T> T singlePickFromArray(final T[] array, double... weights) {
-        if (array == null) {
-            return null;
-        }
-
-        if (weights == null) {
-            weights = new double[]{1};
-        }
-        final int weightsLength = weights.length;
-        double weightsSum = 0;
-        for (int i = 0; i < weightsLength; ++i) {
-            weights[i] = Math.abs(weights[i]);
-            weightsSum += weights[i];
-        }
-        if (weightsSum == 0) {
-            return null;
-        }
-
-        final int arrayLength = array.length;
-        switch (arrayLength) {
-            case 0:
-                throw new RuntimeException("Array is empty.");
-            case 1:
-                return array[0];
-        }
-
-        final double indexScale = arrayLength * 1.0 / weightsLength;
-        final double weightsScale = NORMAL_WEIGHT_SUM / weightsSum;
-
-        final double rnd = randomDouble(0, NORMAL_WEIGHT_SUM);
-        double temp = 0;
-        for (int i = 0; i < weightsLength; ++i) {
-            temp += weights[i] * weightsScale;
-            if (temp > rnd) {
-                final int index = (int) Math.floor(i * indexScale);
-                return array[randomInteger(index, (int) Math.floor((i + 1) * indexScale) - 1)];
-            }
-        }
-        return null;
+        return DEFAULT_GENERATOR.singlePickFromArray(array, weights);
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public static <T> T[] pickMany(final T[] array, final int k, final double... weights) {
+        return DEFAULT_GENERATOR.pickMany(array, k, weights);
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public static long[] pickMany(final long[] array, final int k, final double... weights) {
+        return DEFAULT_GENERATOR.pickMany(array, k, weights);
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public static int[] pickMany(final int[] array, final int k, final double... weights) {
+        return DEFAULT_GENERATOR.pickMany(array, k, weights);
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public static double[] pickMany(final double[] array, final int k, final double... weights) {
+        return DEFAULT_GENERATOR.pickMany(array, k, weights);
+    }
+
+    /**
+     * 從迭代器中均勻地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterator 傳入迭代器
+     * @param k 傳入抽選數量
+     * @return 傳回抽選出來的元素，順序是隨機的。若元素少於k個，將傳回所有元素；若迭代器為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     */
+    public static <T> List<T> pickMany(final Iterator<? extends T> iterator, final int k) {
+        return DEFAULT_GENERATOR.pickMany(iterator, k);
+    }
+
+    /**
+     * 從可迭代的物件中均勻地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterable 傳入可迭代的物件
+     * @param k 傳入抽選數量
+     * @return 傳回抽選出來的元素，順序是隨機的。若元素少於k個，將傳回所有元素；若可迭代的物件為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     */
+    public static <T> List<T> pickMany(final Iterable<? extends T> iterable, final int k) {
+        return DEFAULT_GENERATOR.pickMany(iterable, k);
+    }
+
+    /**
+     * 從串流中均勻地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param stream 傳入串流
+     * @param k 傳入抽選數量
+     * @return 傳回抽選出來的元素，順序是隨機的。若元素少於k個，將傳回所有元素；若串流為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     */
+    public static <T> List<T> pickMany(final Stream<? extends T> stream, final int k) {
+        return DEFAULT_GENERATOR.pickMany(stream, k);
+    }
+
+    /**
+     * 依照權重值從迭代器中不放回地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterator 傳入迭代器
+     * @param k 傳入抽選數量
+     * @param weigher 傳入計算元素權重值的函數，負數將被取絕對值
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，將傳回所有權重值大於0的元素；若迭代器為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public static <T> List<T> pickMany(final Iterator<? extends T> iterator, final int k, final ToDoubleFunction<? super T> weigher) {
+        return DEFAULT_GENERATOR.pickMany(iterator, k, weigher);
+    }
+
+    /**
+     * 依照權重值從可迭代的物件中不放回地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterable 傳入可迭代的物件
+     * @param k 傳入抽選數量
+     * @param weigher 傳入計算元素權重值的函數，負數將被取絕對值
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，將傳回所有權重值大於0的元素；若可迭代的物件為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public static <T> List<T> pickMany(final Iterable<? extends T> iterable, final int k, final ToDoubleFunction<? super T> weigher) {
+        return DEFAULT_GENERATOR.pickMany(iterable, k, weigher);
+    }
+
+    /**
+     * 依照權重值從串流中不放回地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param stream 傳入串流
+     * @param k 傳入抽選數量
+     * @param weigher 傳入計算元素權重值的函數，負數將被取絕對值
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，將傳回所有權重值大於0的元素；若串流為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public static <T> List<T> pickMany(final Stream<? extends T> stream, final int k, final ToDoubleFunction<? super T> weigher) {
+        return DEFAULT_GENERATOR.pickMany(stream, k, weigher);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生整數的串流，數字可以重複。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回整數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public static IntStream ints(final long count, final int a, final int b) {
+        return DEFAULT_GENERATOR.ints(count, a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生整數的串流。串流可以平行化。數字不能重複時，數值是範圍經過偽隨機排列後的前count個值，每個位置的值都可以被獨立計算，不需要記錄已經產生過的值。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param unique 傳入數字是否能重複
+     * @return 傳回整數串流
+     * @throws IllegalArgumentException 數量為負數或是無法產生不重複的數值的時候將拋出例外
+     */
+    public static IntStream ints(final long count, final int a, final int b, final boolean unique) {
+        return DEFAULT_GENERATOR.ints(count, a, b, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生長整數的串流，數字可以重複。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回長整數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public static LongStream longs(final long count, final long a, final long b) {
+        return DEFAULT_GENERATOR.longs(count, a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生長整數的串流。串流可以平行化。數字不能重複時，數值是範圍經過偽隨機排列後的前count個值，每個位置的值都可以被獨立計算，不需要記錄已經產生過的值。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param unique 傳入數字是否能重複
+     * @return 傳回長整數串流
+     * @throws IllegalArgumentException 數量為負數或是無法產生不重複的數值的時候將拋出例外
+     */
+    public static LongStream longs(final long count, final long a, final long b, final boolean unique) {
+        return DEFAULT_GENERATOR.longs(count, a, b, unique);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機抽選count個不重複的長整數，依照由小到大的順序產生串流。使用循序抽樣，每個數值只需要計算和前一個數值之間要跳過幾個數，不需要記錄已經產生過的值，所以只使用O(1)的記憶體，產生count個值的期望時間為O(count)。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回遞增的長整數串流
+     * @throws IllegalArgumentException 數量為負數或是大於範圍內長整數的數量的時候將拋出例外
+     */
+    public static LongStream sortedLongs(final long count, final long a, final long b) {
+        return DEFAULT_GENERATOR.sortedLongs(count, a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機抽選count個不重複的長整數，依照由小到大的順序逐一產生。和sortedLongs方法相同，只使用O(1)的記憶體。
+     *
+     * @param count 傳入數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回依照遞增順序產生長整數的迭代器
+     * @throws IllegalArgumentException 數量為負數或是大於範圍內長整數的數量的時候將拋出例外
+     */
+    public static PrimitiveIterator.OfLong sortedLongsIterator(final long count, final long a, final long b) {
+        return DEFAULT_GENERATOR.sortedLongsIterator(count, a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生雙倍精準浮點數的串流，數字可以重複。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @return 傳回雙倍精準浮點數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public static DoubleStream doubles(final long count, final double a, final double b) {
+        return DEFAULT_GENERATOR.doubles(count, a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生單倍精準浮點數的串流，數字可以重複。因為Java沒有單倍精準浮點數的串流，數值會以DoubleStream傳回，但每個數值都是單倍精準浮點數。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @return 傳回單倍精準浮點數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public static DoubleStream floats(final long count, final float a, final float b) {
+        return DEFAULT_GENERATOR.floats(count, a, b);
     }
 
     // -----建構子-----
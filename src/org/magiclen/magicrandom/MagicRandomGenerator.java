@@ -0,0 +1,1924 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.magiclen.magicrandom.MagicRandomMetrics.Family;
+import org.magiclen.magicrandom.engine.RandomEngine;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * <p>
+ * 可實體化的隨機產生器，所有的亂數都從指定的亂數引擎取得。特色如下：
+ * </p>
+ *
+ * <ol>
+ * <li>可以隨機產生任意型態的資料。</li>
+ * <li>可以調整隨機出現的機率。</li>
+ * <li>可以依照使用情境替換亂數引擎。</li>
+ * </ol>
+ *
+ * <p>
+ * 產生器是否為執行緒安全，取決於使用的亂數引擎。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class MagicRandomGenerator {
+
+    // -----類別常數-----
+    /**
+     * 正規化權重值總和。
+     */
+    private static final double NORMAL_WEIGHT_SUM = 100000;
+    /**
+     * 用來一次將8個位元組寫入位元組陣列。
+     */
+    private static final VarHandle BYTE_ARRAY_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    /**
+     * 批次產生亂數時，每一段的元素數量。先用引擎的批次方法產生一段亂數，再趁資料還在快取中的時候轉換到指定的範圍。
+     */
+    private static final int BULK_BLOCK_SIZE = 4096;
+
+    // -----物件常數-----
+    private final RandomEngine engine;
+
+    // -----物件變數-----
+    /**
+     * 最近一次randomPoisson使用的抽樣器。抽樣器是不可變的物件，多個執行緒同時存取時最多只是多計算一次常數。
+     */
+    private PoissonSampler lastPoissonSampler;
+    /**
+     * 最近一次randomZipf使用的抽樣器。
+     */
+    private ZipfSampler lastZipfSampler;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用指定的亂數引擎。
+     *
+     * @param engine 傳入亂數引擎
+     */
+    public MagicRandomGenerator(final RandomEngine engine) {
+        if (engine == null) {
+            throw new NullPointerException("The engine can't be null.");
+        }
+        this.engine = engine;
+    }
+
+    // -----物件方法-----
+    /**
+     * 取得這個產生器使用的亂數引擎。
+     *
+     * @return 傳回亂數引擎
+     */
+    public RandomEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * 隨機取得一個長整數。
+     *
+     * @return 傳回隨機取得的長整數
+     */
+    public long randomLong() {
+        MagicRandomMetrics.record(Family.LONG, 1, 8);
+        return engine.nextLong();
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機取得一個長整數。
+     *
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回隨機取得的長整數
+     */
+    public long randomLong(final long a, final long b) {
+        MagicRandomMetrics.record(Family.LONG, 1, 8);
+        if (b >= a) {
+            return a + BoundedRandom.nextLong(engine, b - a + 1);
+        }
+        return b + BoundedRandom.nextLong(engine, a - b + 1);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的長整數數列。
+     *
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回隨機產生的長整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public long[] randomLongArray(final long a, final long b) {
+        return permutation(a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的長整數數列。
+     *
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的長整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public long[] randomLongArray(final long a, final long b, final int length) {
+        return randomLongArray(a, b, length, true);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組長整數數列。
+     *
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @param unique 傳入數列的數字是否能重複
+     * @return 傳回隨機產生的長整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public long[] randomLongArray(final long a, final long b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        final long[] array = new long[length];
+        fill(array, 0, length, a, b, unique);
+        return array;
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生長整數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public void fill(final long[] dest, final int offset, final int length, final long a, final long b, final boolean unique) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.LONG, "fill", length, 8L * length);
+        final int end = offset + length;
+        final long max, min;
+        if (b >= a) {
+            max = b;
+            min = a;
+        } else {
+            max = a;
+            min = b;
+        }
+        // 範圍大小視為無號數，0表示2^64
+        final long size = max - min + 1;
+        if (unique) {
+            if (size != 0 && Long.compareUnsigned(length, size) > 0) {
+                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
+            }
+            MagicRandomMetrics.recordRetries(Family.LONG, UniqueSampler.sampleLongs(engine, dest, offset, length, min, size));
+        } else {
+            for (int i = offset; i < end; ++i) {
+                dest[i] = min + BoundedRandom.nextLong(engine, size);
+            }
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有長整數的隨機排列。先依序填入範圍內的長整數，再就地洗牌。
+     *
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回隨機排列的長整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public long[] permutation(final long a, final long b) {
+        final long[] array = new long[permutationSize(a, b)];
+        permutation(array, 0, a, b);
+        return array;
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有長整數的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public void permutation(final long[] dest, final int offset, final long a, final long b) {
+        final int size = permutationSize(a, b);
+        checkRange(dest.length, offset, size);
+        final long min = b >= a ? a : b;
+        for (int i = 0; i < size; ++i) {
+            dest[offset + i] = min + i;
+        }
+        shuffle(dest, offset, size);
+    }
+
+    /**
+     * 隨機取得一個整數。
+     *
+     * @return 傳回隨機取得的整數
+     */
+    public int randomInteger() {
+        MagicRandomMetrics.record(Family.INTEGER, 1, 4);
+        return engine.nextInt();
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機取得一個整數。
+     *
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回隨機取得的整數
+     */
+    public int randomInteger(final int a, final int b) {
+        MagicRandomMetrics.record(Family.INTEGER, 1, 4);
+        return nextInteger(a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的整數數列。
+     *
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回隨機產生的整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public int[] randomIntegerArray(final int a, final int b) {
+        return permutation(a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的整數數列。
+     *
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public int[] randomIntegerArray(final int a, final int b, final int length) {
+        return randomIntegerArray(a, b, length, true);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組整數數列。
+     *
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @param unique 傳入數列的數字是否能重複
+     * @return 傳回隨機產生的整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public int[] randomIntegerArray(final int a, final int b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        final int[] array = new int[length];
+        fill(array, 0, length, a, b, unique);
+        return array;
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生整數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public void fill(final int[] dest, final int offset, final int length, final int a, final int b, final boolean unique) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.INTEGER, "fill", length, 4L * length);
+        final int end = offset + length;
+        final int max, min;
+        if (b >= a) {
+            max = b;
+            min = a;
+        } else {
+            max = a;
+            min = b;
+        }
+        final long size = (long) max - min + 1;
+        if (unique) {
+            if (length > size) {
+                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
+            }
+            MagicRandomMetrics.recordRetries(Family.INTEGER, UniqueSampler.sampleInts(engine, dest, offset, length, min, size));
+        } else if (size > Integer.MAX_VALUE) {
+            for (int i = offset; i < end; ++i) {
+                dest[i] = min + (int) BoundedRandom.nextLong(engine, size);
+            }
+        } else {
+            BoundedRandom.fillInts(engine, dest, offset, length, min, (int) size);
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有整數的隨機排列。先依序填入範圍內的整數，再就地洗牌。
+     *
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回隨機排列的整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public int[] permutation(final int a, final int b) {
+        final int[] array = new int[permutationSize(a, b)];
+        permutation(array, 0, a, b);
+        return array;
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有整數的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public void permutation(final int[] dest, final int offset, final int a, final int b) {
+        final int size = permutationSize(a, b);
+        checkRange(dest.length, offset, size);
+        final int min = b >= a ? a : b;
+        for (int i = 0; i < size; ++i) {
+            dest[offset + i] = min + i;
+        }
+        shuffle(dest, offset, size);
+    }
+
+    /**
+     * 隨機取得一個短整數。
+     *
+     * @return 傳回隨機取得的短整數
+     */
+    public short randomShort() {
+        MagicRandomMetrics.record(Family.SHORT, 1, 2);
+        return (short) (engine.nextInt() >>> 16);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機取得一個短整數。
+     *
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @return 傳回隨機取得的整數
+     */
+    public short randomShort(final short a, final short b) {
+        MagicRandomMetrics.record(Family.SHORT, 1, 2);
+        if (b >= a) {
+            return (short) (a + BoundedRandom.nextInt(engine, b - a + 1));
+        }
+        return (short) (b + BoundedRandom.nextInt(engine, a - b + 1));
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的短整數數列。
+     *
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @return 傳回隨機產生的短整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public short[] randomShortArray(final short a, final short b) {
+        return permutation(a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的短整數數列。
+     *
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的短整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public short[] randomShortArray(final short a, final short b, final int length) {
+        return randomShortArray(a, b, length, true);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組短整數數列。
+     *
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @param unique 傳入數列的數字是否能重複
+     * @return 傳回隨機產生的短整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public short[] randomShortArray(final short a, final short b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        final short[] array = new short[length];
+        fill(array, 0, length, a, b, unique);
+        return array;
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生短整數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public void fill(final short[] dest, final int offset, final int length, final short a, final short b, final boolean unique) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHORT, "fill", length, 2L * length);
+        final int end = offset + length;
+        final short max, min;
+        if (b >= a) {
+            max = b;
+            min = a;
+        } else {
+            max = a;
+            min = b;
+        }
+        final int size = max - min + 1;
+        if (unique) {
+            if (length > size) {
+                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
+            }
+            UniqueSampler.sampleShorts(engine, dest, offset, length, min, size);
+        } else {
+            for (int i = offset; i < end; ++i) {
+                dest[i] = (short) (min + BoundedRandom.nextInt(engine, size));
+            }
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有短整數的隨機排列。先依序填入範圍內的短整數，再就地洗牌。
+     *
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @return 傳回隨機排列的短整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public short[] permutation(final short a, final short b) {
+        final short[] array = new short[permutationSize(a, b)];
+        permutation(array, 0, a, b);
+        return array;
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有短整數的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public void permutation(final short[] dest, final int offset, final short a, final short b) {
+        final int size = permutationSize(a, b);
+        checkRange(dest.length, offset, size);
+        final short min = b >= a ? a : b;
+        for (int i = 0; i < size; ++i) {
+            dest[offset + i] = (short) (min + i);
+        }
+        shuffle(dest, offset, size);
+    }
+
+    /**
+     * 隨機取得一個位元組。
+     *
+     * @return 傳回隨機取得的位元組
+     */
+    public byte randomByte() {
+        MagicRandomMetrics.record(Family.BYTE, 1, 1);
+        return (byte) (engine.nextInt() >>> 24);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機取得一個位元組。
+     *
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @return 傳回隨機取得的位元組
+     */
+    public byte randomByte(final byte a, final byte b) {
+        MagicRandomMetrics.record(Family.BYTE, 1, 1);
+        if (b >= a) {
+            return (byte) (a + BoundedRandom.nextInt(engine, b - a + 1));
+        }
+        return (byte) (b + BoundedRandom.nextInt(engine, a - b + 1));
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的位元組數列。
+     *
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @return 傳回隨機產生的位元組陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public byte[] randomByteArray(final byte a, final byte b) {
+        return permutation(a, b);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的位元組數列。
+     *
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的位元組陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public byte[] randomByteArray(final byte a, final byte b, final int length) {
+        return randomByteArray(a, b, length, true);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組位元組數列。
+     *
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @param unique 傳入數列的數字是否能重複
+     * @return 傳回隨機產生的位元組陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public byte[] randomByteArray(final byte a, final byte b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        final byte[] array = new byte[length];
+        fill(array, 0, length, a, b, unique);
+        return array;
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生位元組，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public void fill(final byte[] dest, final int offset, final int length, final byte a, final byte b, final boolean unique) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.BYTE, "fill", length, length);
+        final int end = offset + length;
+        final byte max, min;
+        if (b >= a) {
+            max = b;
+            min = a;
+        } else {
+            max = a;
+            min = b;
+        }
+        final int size = max - min + 1;
+        if (unique) {
+            if (length > size) {
+                throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than |a - b|.");
+            }
+            UniqueSampler.sampleBytes(engine, dest, offset, length, min, size);
+        } else {
+            final int threshold = (256 - size) % size;
+            int i = offset;
+            for (; i <= end - 8; i += 8) {
+                BYTE_ARRAY_LONG.set(dest, i, nextPackedBytes(min, size, threshold));
+            }
+            if (i < end) {
+                long packed = nextPackedBytes(min, size, threshold);
+                for (; i < end; ++i, packed >>>= 8) {
+                    dest[i] = (byte) packed;
+                }
+            }
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 隨機產生位元組，寫入陣列中的一段範圍。每次從亂數引擎取得的64位元亂數都會被完整用來產生8個位元組。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void fill(final byte[] dest, final int offset, final int length) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.BYTE, "fill", length, length);
+        final int end = offset + length;
+        int i = offset;
+        for (; i <= end - 8; i += 8) {
+            BYTE_ARRAY_LONG.set(dest, i, engine.nextLong());
+        }
+        if (i < end) {
+            long rnd = engine.nextLong();
+            for (; i < end; ++i, rnd >>>= 8) {
+                dest[i] = (byte) rnd;
+            }
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 隨機產生位元組，填滿緩衝區從目前位置(position)到限制(limit)之間的空間，完成後位置會被移到限制。緩衝區可以是堆積或是直接(direct)緩衝區，每次從亂數引擎取得的64位元亂數都會被完整用來產生8個位元組。
+     *
+     * @param buffer 傳入緩衝區
+     * @throws java.nio.ReadOnlyBufferException 緩衝區是唯讀的時候將拋出例外
+     */
+    public void fill(final ByteBuffer buffer) {
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.BYTE, "fill", buffer.remaining(), buffer.remaining());
+        final int limit = buffer.limit();
+        int position = buffer.position();
+        for (; position <= limit - 8; position += 8) {
+            buffer.putLong(position, engine.nextLong());
+        }
+        if (position < limit) {
+            long rnd = engine.nextLong();
+            for (; position < limit; ++position, rnd >>>= 8) {
+                buffer.put(position, (byte) rnd);
+            }
+        }
+        buffer.position(limit);
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生位元組，填滿緩衝區從目前位置(position)到限制(limit)之間的空間，完成後位置會被移到限制。
+     *
+     * @param buffer 傳入緩衝區
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @throws java.nio.ReadOnlyBufferException 緩衝區是唯讀的時候將拋出例外
+     */
+    public void fill(final ByteBuffer buffer, final byte a, final byte b) {
+        final byte min = b >= a ? a : b;
+        final int size = Math.abs(a - b) + 1;
+        if (size == 256) {
+            fill(buffer);
+            return;
+        }
+        final int threshold = (256 - size) % size;
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.BYTE, "fill", buffer.remaining(), buffer.remaining());
+        final int limit = buffer.limit();
+        int position = buffer.position();
+        for (; position <= limit - 8; position += 8) {
+            buffer.putLong(position, nextPackedBytes(min, size, threshold));
+        }
+        if (position < limit) {
+            long packed = nextPackedBytes(min, size, threshold);
+            for (; position < limit; ++position, packed >>>= 8) {
+                buffer.put(position, (byte) packed);
+            }
+        }
+        buffer.position(limit);
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 產生a~b或是b~a範圍內所有位元組的隨機排列。先依序填入範圍內的位元組，再就地洗牌。
+     *
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @return 傳回隨機排列的位元組陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public byte[] permutation(final byte a, final byte b) {
+        final byte[] array = new byte[permutationSize(a, b)];
+        permutation(array, 0, a, b);
+        return array;
+    }
+
+    /**
+     * 將a~b或是b~a範圍內所有位元組的隨機排列寫入陣列中。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 陣列的空間不足的時候將拋出例外
+     */
+    public void permutation(final byte[] dest, final int offset, final byte a, final byte b) {
+        final int size = permutationSize(a, b);
+        checkRange(dest.length, offset, size);
+        final byte min = b >= a ? a : b;
+        for (int i = 0; i < size; ++i) {
+            dest[offset + i] = (byte) (min + i);
+        }
+        shuffle(dest, offset, size);
+    }
+
+    /**
+     * 隨機取得一個雙倍精準浮點數。
+     *
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public double randomDouble() {
+        MagicRandomMetrics.record(Family.DOUBLE, 1, 8);
+        return Double.longBitsToDouble(engine.nextLong());
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機取得一個雙倍精準浮點數。
+     *
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public double randomDouble(final double a, final double b) {
+        MagicRandomMetrics.record(Family.DOUBLE, 1, 8);
+        final double rnd = engine.nextDouble();
+        if (b >= a) {
+            return rnd * (b - a) + a;
+        } else {
+            return rnd * (a - b) + b;
+        }
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的雙倍精準浮點數數列。
+     *
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的雙倍精準浮點數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public double[] randomDoubleArray(final double a, final double b, final int length) {
+        return randomDoubleArray(a, b, length, true);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組雙倍精準浮點數數列。
+     *
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @param unique 傳入數列的數字是否能重複
+     * @return 傳回隨機產生的雙倍精準浮點數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public double[] randomDoubleArray(final double a, final double b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        final double[] array = new double[length];
+        fill(array, 0, length, a, b, unique);
+        return array;
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生雙倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public void fill(final double[] dest, final int offset, final int length, final double a, final double b, final boolean unique) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.DOUBLE, "fill", length, 8L * length);
+        final int end = offset + length;
+        final double max, min;
+        if (b >= a) {
+            max = b;
+            min = a;
+        } else {
+            max = a;
+            min = b;
+        }
+        final double size = max - min;
+        if (unique) {
+            MagicRandomMetrics.recordRetries(Family.DOUBLE, UniqueSampler.sampleDoubles(engine, dest, offset, length, min, max));
+        } else {
+            for (int i = offset; i < end; i += BULK_BLOCK_SIZE) {
+                final int blockEnd = Math.min(end, i + BULK_BLOCK_SIZE);
+                engine.nextDoubles(dest, i, blockEnd - i);
+                for (int j = i; j < blockEnd; ++j) {
+                    dest[j] = dest[j] * size + min;
+                }
+            }
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 隨機取得一個單倍精準浮點數。
+     *
+     * @return 傳回隨機取得的單倍精準浮點數
+     */
+    public float randomFloat() {
+        MagicRandomMetrics.record(Family.FLOAT, 1, 4);
+        return Float.intBitsToFloat(engine.nextInt());
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機取得一個單倍精準浮點數。
+     *
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @return 傳回隨機取得的單倍精準浮點數
+     */
+    public float randomFloat(final float a, final float b) {
+        MagicRandomMetrics.record(Family.FLOAT, 1, 4);
+        final double rnd = engine.nextDouble();
+        if (b >= a) {
+            return (float) (rnd * (b - a) + a);
+        } else {
+            return (float) (rnd * (a - b) + b);
+        }
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組數字不重複的單倍精準浮點數數列。
+     *
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的單倍精準浮點數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public float[] randomFloatArray(final float a, final float b, final int length) {
+        return randomFloatArray(a, b, length, true);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生一組單倍精準浮點數數列。
+     *
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @param unique 傳入數列的數字是否能重複
+     * @return 傳回隨機產生的單倍精準浮點數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public float[] randomFloatArray(final float a, final float b, final int length, final boolean unique) throws ArrayIndexOutOfBoundsException {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        final float[] array = new float[length];
+        fill(array, 0, length, a, b, unique);
+        return array;
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生單倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @param unique 傳入數列的數字是否能重複
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列或是無法產生數列的時候將拋出例外
+     */
+    public void fill(final float[] dest, final int offset, final int length, final float a, final float b, final boolean unique) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.FLOAT, "fill", length, 4L * length);
+        final int end = offset + length;
+        final float max, min;
+        if (b >= a) {
+            max = b;
+            min = a;
+        } else {
+            max = a;
+            min = b;
+        }
+        final float size = max - min;
+        if (unique) {
+            MagicRandomMetrics.recordRetries(Family.FLOAT, UniqueSampler.sampleFloats(engine, dest, offset, length, min, max));
+        } else {
+            for (int i = offset; i < end; i += BULK_BLOCK_SIZE) {
+                final int blockEnd = Math.min(end, i + BULK_BLOCK_SIZE);
+                engine.nextFloats(dest, i, blockEnd - i);
+                for (int j = i; j < blockEnd; ++j) {
+                    dest[j] = dest[j] * size + min;
+                }
+            }
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 隨機取得一個標準常態分布(平均數為0，標準差為1)的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public double randomGaussian() {
+        MagicRandomMetrics.record(Family.DISTRIBUTION, 1, 8);
+        return Ziggurat.normal(engine);
+    }
+
+    /**
+     * 隨機取得一個常態分布的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @param mean 傳入平均數
+     * @param standardDeviation 傳入標準差
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public double randomGaussian(final double mean, final double standardDeviation) {
+        MagicRandomMetrics.record(Family.DISTRIBUTION, 1, 8);
+        return Ziggurat.normal(engine) * standardDeviation + mean;
+    }
+
+    /**
+     * 隨機產生常態分布的雙倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param mean 傳入平均數
+     * @param standardDeviation 傳入標準差
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void fillGaussian(final double[] dest, final int offset, final int length, final double mean, final double standardDeviation) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.DISTRIBUTION, "fillGaussian", length, 8L * length);
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = Ziggurat.normal(engine) * standardDeviation + mean;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 隨機取得一個平均數為1的指數分布的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public double randomExponential() {
+        MagicRandomMetrics.record(Family.DISTRIBUTION, 1, 8);
+        return Ziggurat.exponential(engine);
+    }
+
+    /**
+     * 隨機取得一個指數分布的雙倍精準浮點數。使用Ziggurat演算法。
+     *
+     * @param mean 傳入平均數(1/λ)
+     * @return 傳回隨機取得的雙倍精準浮點數
+     */
+    public double randomExponential(final double mean) {
+        MagicRandomMetrics.record(Family.DISTRIBUTION, 1, 8);
+        return Ziggurat.exponential(engine) * mean;
+    }
+
+    /**
+     * 隨機產生指數分布的雙倍精準浮點數，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param mean 傳入平均數(1/λ)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void fillExponential(final double[] dest, final int offset, final int length, final double mean) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.DISTRIBUTION, "fillExponential", length, 8L * length);
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = Ziggurat.exponential(engine) * mean;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 隨機取得一個卜瓦松分布的長整數。平均數小於10時使用逆變換法，否則使用Hörmann的PTRS演算法，期望的時間複雜度和平均數無關。和平均數有關的常數只會保留最近一次使用的那一組，連續用相同的平均數呼叫時不必重新計算；平均數一直改變時，每次呼叫都要重新計算，大量產生時請使用fillPoisson方法。
+     *
+     * @param mean 傳入平均數(λ)，必須是有限的非負數
+     * @return 傳回隨機取得的長整數
+     * @throws IllegalArgumentException 平均數不合法的時候將拋出例外
+     */
+    public long randomPoisson(final double mean) {
+        MagicRandomMetrics.record(Family.DISTRIBUTION, 1, 8);
+        PoissonSampler sampler = lastPoissonSampler;
+        if (sampler == null || !sampler.hasMean(mean)) {
+            sampler = new PoissonSampler(mean);
+            lastPoissonSampler = sampler;
+        }
+        return sampler.sample(engine);
+    }
+
+    /**
+     * 隨機產生卜瓦松分布的長整數，寫入陣列中的一段範圍。不會配置新的陣列。和平均數有關的常數只會計算一次。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param mean 傳入平均數(λ)，必須是有限的非負數
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     * @throws IllegalArgumentException 平均數不合法的時候將拋出例外
+     */
+    public void fillPoisson(final long[] dest, final int offset, final int length, final double mean) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.DISTRIBUTION, "fillPoisson", length, 8L * length);
+        final PoissonSampler sampler = new PoissonSampler(mean);
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = sampler.sample(engine);
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 隨機取得一個Zipf分布的整數，k被抽中的機率和1/k^s成正比。使用Hörmann和Derflinger的拒絕逆變換法，期望的時間複雜度和元素數量無關。由元素數量和指數決定的常數只會保留最近一次使用的那一組，連續用相同的參數呼叫時不必重新計算；參數一直改變時，每次呼叫都要重新計算，大量產生時請使用fillZipf方法。
+     *
+     * @param numberOfElements 傳入元素數量n，必須大於0
+     * @param exponent 傳入指數s，必須是有限的非負數，0表示均勻分布
+     * @return 傳回隨機取得的1~n的整數
+     * @throws IllegalArgumentException 參數不合法的時候將拋出例外
+     */
+    public int randomZipf(final int numberOfElements, final double exponent) {
+        MagicRandomMetrics.record(Family.DISTRIBUTION, 1, 4);
+        ZipfSampler sampler = lastZipfSampler;
+        if (sampler == null || !sampler.hasParameters(numberOfElements, exponent)) {
+            sampler = new ZipfSampler(numberOfElements, exponent);
+            lastZipfSampler = sampler;
+        }
+        return sampler.sample(engine);
+    }
+
+    /**
+     * 隨機產生Zipf分布的整數，寫入陣列中的一段範圍。不會配置新的陣列。由元素數量和指數決定的常數只會計算一次。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param numberOfElements 傳入元素數量n，必須大於0
+     * @param exponent 傳入指數s，必須是有限的非負數，0表示均勻分布
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     * @throws IllegalArgumentException 參數不合法的時候將拋出例外
+     */
+    public void fillZipf(final int[] dest, final int offset, final int length, final int numberOfElements, final double exponent) {
+        checkRange(dest.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.DISTRIBUTION, "fillZipf", length, 4L * length);
+        final ZipfSampler sampler = new ZipfSampler(numberOfElements, exponent);
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = sampler.sample(engine);
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final long[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final long[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final long temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final int[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final int[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final int temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final short[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final short[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final short temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final byte[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final byte[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final byte temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final double[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final double[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final double temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final float[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final float[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final float temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final char[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final char[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final char temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param array 傳入陣列
+     */
+    public void shuffle(final boolean[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void shuffle(final boolean[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final boolean temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將陣列就地洗牌。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     */
+    public <T> void shuffle(final T[] array) {
+        shuffle(array, 0, array.length);
+    }
+
+    /**
+     * 使用Fisher–Yates演算法將陣列中的一段範圍就地洗牌，每一種排列出現的機率都相同。一律使用這個產生器的亂數引擎依序洗牌；需要平行洗牌時，請使用ParallelMagicRandom的shuffle方法。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public <T> void shuffle(final T[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", length, 0);
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final T temp = array[offset + i];
+            array[offset + i] = array[j];
+            array[j] = temp;
+        }
+        MagicRandomMetrics.endBulk(event);
+    }
+
+    /**
+     * 將列表就地洗牌。可以隨機存取(RandomAccess)的列表會直接交換元素；其它列表會先複製到陣列中洗牌，再依序寫回，避免O(n^2)的存取時間。
+     *
+     * @param list 傳入列表
+     * @throws UnsupportedOperationException 列表不支援set方法的時候將拋出例外
+     */
+    @SuppressWarnings("unchecked")
+    public void shuffle(final List<?> list) {
+        final int size = list.size();
+        if (list instanceof RandomAccess) {
+            final BulkGenerationEvent event = MagicRandomMetrics.beginBulk(Family.SHUFFLE, "shuffle", size, 0);
+            final List<Object> elements = (List<Object>) list;
+            for (int i = size - 1; i > 0; --i) {
+                final int j = BoundedRandom.nextInt(engine, i + 1);
+                elements.set(i, elements.set(j, elements.get(i)));
+            }
+            MagicRandomMetrics.endBulk(event);
+        } else {
+            final Object[] array = list.toArray();
+            shuffle(array, 0, array.length);
+            final ListIterator<Object> iterator = (ListIterator<Object>) list.listIterator();
+            for (final Object element : array) {
+                iterator.next();
+                iterator.set(element);
+            }
+        }
+    }
+
+    /**
+     * 從陣列中隨機抽選出一個元素。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     * @return 傳回抽選出來的元素，若沒有元素被抽中，將傳回null
+     */
+    public <T> T singlePickFromArray(final T[] array) {
+        return singlePickFromArray(array, null);
+    }
+
+    /**
+     * 從陣列中隨機抽選出一個元素。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     * @param weights 傳入抽選區域的權重值
+     * @return 傳回抽選出來的元素，若沒有元素被抽中，將傳回null
+     * @see WeightedPicker
+     */
+    public <T> T singlePickFromArray(final T[] array, double... weights) {
+        if (array == null) {
+            return null;
+        }
+
+        if (weights == null) {
+            weights = new double[]{1};
+        }
+        final int weightsLength = weights.length;
+        double weightsSum = 0;
+        for (int i = 0; i < weightsLength; ++i) {
+            weightsSum += Math.abs(weights[i]);
+        }
+        if (weightsSum == 0) {
+            return null;
+        }
+
+        final int arrayLength = array.length;
+        switch (arrayLength) {
+            case 0:
+                throw new RuntimeException("Array is empty.");
+            case 1:
+                return array[0];
+        }
+
+        MagicRandomMetrics.record(Family.PICK, 1, 0);
+        final double indexScale = arrayLength * 1.0 / weightsLength;
+        final double weightsScale = NORMAL_WEIGHT_SUM / weightsSum;
+
+        final double rnd = engine.nextDouble() * NORMAL_WEIGHT_SUM;
+        double temp = 0;
+        for (int i = 0; i < weightsLength; ++i) {
+            temp += Math.abs(weights[i]) * weightsScale;
+            if (temp > rnd) {
+                final int index = (int) Math.floor(i * indexScale);
+                return array[nextInteger(index, (int) Math.floor((i + 1) * indexScale) - 1)];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param <T> 陣列元素型態
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public <T> T[] pickMany(final T[] array, final int k, final double... weights) {
+        if (array == null) {
+            return null;
+        }
+        final int[] indices = pickIndices(array.length, k, weights);
+        final int length = indices.length;
+        final T[] result = Arrays.copyOf(array, length);
+        for (int i = 0; i < length; ++i) {
+            result[i] = array[indices[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public long[] pickMany(final long[] array, final int k, final double... weights) {
+        if (array == null) {
+            return null;
+        }
+        final int[] indices = pickIndices(array.length, k, weights);
+        final int length = indices.length;
+        final long[] result = new long[length];
+        for (int i = 0; i < length; ++i) {
+            result[i] = array[indices[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public int[] pickMany(final int[] array, final int k, final double... weights) {
+        if (array == null) {
+            return null;
+        }
+        final int[] indices = pickIndices(array.length, k, weights);
+        final int length = indices.length;
+        final int[] result = new int[length];
+        for (int i = 0; i < length; ++i) {
+            result[i] = array[indices[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 依照權重值從陣列中不放回地抽選出k個不同位置的元素。權重值的規則和singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，區域內的元素平分區域的權重值。使用Efraimidis–Spirakis的指數跳躍演算法，只需要掃描一次陣列。
+     *
+     * @param array 傳入陣列
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，只會傳回這些元素；若陣列為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public double[] pickMany(final double[] array, final int k, final double... weights) {
+        if (array == null) {
+            return null;
+        }
+        final int[] indices = pickIndices(array.length, k, weights);
+        final int length = indices.length;
+        final double[] result = new double[length];
+        for (int i = 0; i < length; ++i) {
+            result[i] = array[indices[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 從迭代器中均勻地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterator 傳入迭代器
+     * @param k 傳入抽選數量
+     * @return 傳回抽選出來的元素，順序是隨機的。若元素少於k個，將傳回所有元素；若迭代器為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     */
+    public <T> List<T> pickMany(final Iterator<? extends T> iterator, final int k) {
+        if (iterator == null) {
+            return null;
+        }
+        if (k < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        MagicRandomMetrics.record(Family.PICK, k, 0);
+        return ReservoirSampler.sample(engine, iterator, k);
+    }
+
+    /**
+     * 從可迭代的物件中均勻地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterable 傳入可迭代的物件
+     * @param k 傳入抽選數量
+     * @return 傳回抽選出來的元素，順序是隨機的。若元素少於k個，將傳回所有元素；若可迭代的物件為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     */
+    public <T> List<T> pickMany(final Iterable<? extends T> iterable, final int k) {
+        if (iterable == null) {
+            return null;
+        }
+        return pickMany(iterable.iterator(), k);
+    }
+
+    /**
+     * 從串流中均勻地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param stream 傳入串流
+     * @param k 傳入抽選數量
+     * @return 傳回抽選出來的元素，順序是隨機的。若元素少於k個，將傳回所有元素；若串流為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     */
+    public <T> List<T> pickMany(final Stream<? extends T> stream, final int k) {
+        if (stream == null) {
+            return null;
+        }
+        return pickMany(stream.iterator(), k);
+    }
+
+    /**
+     * 依照權重值從迭代器中不放回地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterator 傳入迭代器
+     * @param k 傳入抽選數量
+     * @param weigher 傳入計算元素權重值的函數，負數將被取絕對值
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，將傳回所有權重值大於0的元素；若迭代器為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public <T> List<T> pickMany(final Iterator<? extends T> iterator, final int k, final ToDoubleFunction<? super T> weigher) {
+        if (iterator == null) {
+            return null;
+        }
+        if (k < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        MagicRandomMetrics.record(Family.PICK, k, 0);
+        return ReservoirSampler.sample(engine, iterator, k, weigher);
+    }
+
+    /**
+     * 依照權重值從可迭代的物件中不放回地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param iterable 傳入可迭代的物件
+     * @param k 傳入抽選數量
+     * @param weigher 傳入計算元素權重值的函數，負數將被取絕對值
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，將傳回所有權重值大於0的元素；若可迭代的物件為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public <T> List<T> pickMany(final Iterable<? extends T> iterable, final int k, final ToDoubleFunction<? super T> weigher) {
+        if (iterable == null) {
+            return null;
+        }
+        return pickMany(iterable.iterator(), k, weigher);
+    }
+
+    /**
+     * 依照權重值從串流中不放回地抽選出k個元素。使用蓄水池抽樣，只會走訪一次，只需要O(k)的記憶體，不需要事先知道元素的數量。
+     *
+     * @param <T> 元素型態
+     * @param stream 傳入串流
+     * @param k 傳入抽選數量
+     * @param weigher 傳入計算元素權重值的函數，負數將被取絕對值
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，將傳回所有權重值大於0的元素；若串流為null，將傳回null
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    public <T> List<T> pickMany(final Stream<? extends T> stream, final int k, final ToDoubleFunction<? super T> weigher) {
+        if (stream == null) {
+            return null;
+        }
+        return pickMany(stream.iterator(), k, weigher);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生整數的串流，數字可以重複。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回整數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public IntStream ints(final long count, final int a, final int b) {
+        return ints(count, a, b, false);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生整數的串流。串流可以平行化。數字不能重複時，數值是範圍經過偽隨機排列後的前count個值，每個位置的值都可以被獨立計算，不需要記錄已經產生過的值。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param unique 傳入數字是否能重複
+     * @return 傳回整數串流
+     * @throws IllegalArgumentException 數量為負數或是無法產生不重複的數值的時候將拋出例外
+     */
+    public IntStream ints(final long count, final int a, final int b, final boolean unique) {
+        checkCount(count);
+        MagicRandomMetrics.record(Family.STREAM, count, 0);
+        final int min = b >= a ? a : b;
+        final long size = Math.abs((long) a - b) + 1;
+        if (unique) {
+            if (count > size) {
+                throw new IllegalArgumentException("The count can't larger than |a - b| + 1.");
+            }
+            return StreamSupport.longStream(new RandomSpliterators.UniqueLongsSpliterator(new RandomPermutation(size, engine.nextLong()), 0, count, min), false).mapToInt(value -> (int) value);
+        }
+        return StreamSupport.intStream(new RandomSpliterators.IntsSpliterator(new SplittableRandomEngine(engine.nextLong()), 0, count, min, size), false);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生長整數的串流，數字可以重複。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回長整數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public LongStream longs(final long count, final long a, final long b) {
+        return longs(count, a, b, false);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生長整數的串流。串流可以平行化。數字不能重複時，數值是範圍經過偽隨機排列後的前count個值，每個位置的值都可以被獨立計算，不需要記錄已經產生過的值。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param unique 傳入數字是否能重複
+     * @return 傳回長整數串流
+     * @throws IllegalArgumentException 數量為負數或是無法產生不重複的數值的時候將拋出例外
+     */
+    public LongStream longs(final long count, final long a, final long b, final boolean unique) {
+        checkCount(count);
+        MagicRandomMetrics.record(Family.STREAM, count, 0);
+        final long min = b >= a ? a : b;
+        // 範圍大小視為無號數，0表示2^64
+        final long size = (b >= a ? b - a : a - b) + 1;
+        if (unique) {
+            if (size != 0 && Long.compareUnsigned(count, size) > 0) {
+                throw new IllegalArgumentException("The count can't larger than |a - b| + 1.");
+            }
+            return StreamSupport.longStream(new RandomSpliterators.UniqueLongsSpliterator(new RandomPermutation(size, engine.nextLong()), 0, count, min), false);
+        }
+        return StreamSupport.longStream(new RandomSpliterators.LongsSpliterator(new SplittableRandomEngine(engine.nextLong()), 0, count, min, size), false);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機抽選count個不重複的長整數，依照由小到大的順序產生串流。使用循序抽樣，每個數值只需要計算和前一個數值之間要跳過幾個數，不需要記錄已經產生過的值，所以只使用O(1)的記憶體，產生count個值的期望時間為O(count)。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回遞增的長整數串流
+     * @throws IllegalArgumentException 數量為負數或是大於範圍內長整數的數量的時候將拋出例外
+     */
+    public LongStream sortedLongs(final long count, final long a, final long b) {
+        return StreamSupport.longStream(Spliterators.spliterator(sortedLongsIterator(count, a, b), count, Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機抽選count個不重複的長整數，依照由小到大的順序逐一產生。和sortedLongs方法相同，只使用O(1)的記憶體。
+     *
+     * @param count 傳入數值數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回依照遞增順序產生長整數的迭代器
+     * @throws IllegalArgumentException 數量為負數或是大於範圍內長整數的數量的時候將拋出例外
+     */
+    public PrimitiveIterator.OfLong sortedLongsIterator(final long count, final long a, final long b) {
+        checkCount(count);
+        final long min = b >= a ? a : b;
+        // 範圍大小視為無號數，0表示2^64
+        final long size = (b >= a ? b - a : a - b) + 1;
+        if (size != 0 && Long.compareUnsigned(count, size) > 0) {
+            throw new IllegalArgumentException("The count can't larger than |a - b| + 1.");
+        }
+        MagicRandomMetrics.record(Family.STREAM, count, 0);
+        return new SequentialSampler(new SplittableRandomEngine(engine.nextLong()), min, size, count);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生雙倍精準浮點數的串流，數字可以重複。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @return 傳回雙倍精準浮點數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public DoubleStream doubles(final long count, final double a, final double b) {
+        checkCount(count);
+        MagicRandomMetrics.record(Family.STREAM, count, 0);
+        final double min = b >= a ? a : b;
+        return StreamSupport.doubleStream(new RandomSpliterators.DoublesSpliterator(new SplittableRandomEngine(engine.nextLong()), 0, count, min, Math.abs(a - b), false), false);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機產生單倍精準浮點數的串流，數字可以重複。因為Java沒有單倍精準浮點數的串流，數值會以DoubleStream傳回，但每個數值都是單倍精準浮點數。串流可以平行化，分割出來的子串流各自使用獨立的亂數狀態。
+     *
+     * @param count 傳入串流的數值數量
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @return 傳回單倍精準浮點數串流
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    public DoubleStream floats(final long count, final float a, final float b) {
+        checkCount(count);
+        MagicRandomMetrics.record(Family.STREAM, count, 0);
+        final float min = b >= a ? a : b;
+        return StreamSupport.doubleStream(new RandomSpliterators.DoublesSpliterator(new SplittableRandomEngine(engine.nextLong()), 0, count, min, Math.abs(a - b), true), false);
+    }
+
+    /**
+     * 在a~b或是b~a的範圍內隨機取得一個整數，不會被記錄到MagicRandomMetrics中。
+     *
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回隨機取得的整數
+     */
+    private int nextInteger(final int a, final int b) {
+        final long size;
+        final int min;
+        if (b >= a) {
+            size = (long) b - a + 1;
+            min = a;
+        } else {
+            size = (long) a - b + 1;
+            min = b;
+        }
+        if (size > Integer.MAX_VALUE) {
+            return min + (int) BoundedRandom.nextLong(engine, size);
+        }
+        return min + BoundedRandom.nextInt(engine, (int) size);
+    }
+
+    /**
+     * 依照權重值不放回地抽選出k個不同的索引。
+     *
+     * @param arrayLength 傳入陣列長度
+     * @param k 傳入抽選數量
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     * @return 傳回被抽中的索引，依照抽中的順序排列
+     * @throws ArrayIndexOutOfBoundsException 抽選數量為負數的時候將拋出例外
+     */
+    private int[] pickIndices(final int arrayLength, final int k, final double[] weights) {
+        if (k < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        if (arrayLength == 0) {
+            throw new RuntimeException("Array is empty.");
+        }
+        MagicRandomMetrics.record(Family.PICK, Math.min(k, arrayLength), 0);
+        if (weights == null || weights.length == 0) {
+            // 權重相同時就是均勻的不重複抽樣
+            final int length = Math.min(k, arrayLength);
+            final int[] indices = new int[length];
+            MagicRandomMetrics.recordRetries(Family.PICK, UniqueSampler.sampleInts(engine, indices, 0, length, 0, arrayLength));
+            return indices;
+        }
+        return WeightedSampler.sample(engine, WeightedSampler.elementWeights(arrayLength, weights), k);
+    }
+
+    /**
+     * 檢查串流的數值數量是否合法。
+     *
+     * @param count 傳入數值數量
+     * @throws IllegalArgumentException 數量為負數的時候將拋出例外
+     */
+    private static void checkCount(final long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The count can't be negative.");
+        }
+    }
+
+    /**
+     * 計算a~b或是b~a範圍內的數值數量。
+     *
+     * @param a 傳入範圍的下限(或上限)
+     * @param b 傳入範圍的上限(或下限)
+     * @return 傳回數值數量
+     * @throws ArrayIndexOutOfBoundsException 數量超過陣列長度上限的時候將拋出例外
+     */
+    private static int permutationSize(final long a, final long b) {
+        final long size = (b >= a ? b - a : a - b) + 1;
+        if (size <= 0 || size > Integer.MAX_VALUE) {
+            throw new ArrayIndexOutOfBoundsException("Array is too long.");
+        }
+        return (int) size;
+    }
+
+    /**
+     * 隨機產生8個在[min, min + size)範圍內的位元組，並打包成一個長整數。每個位元組只使用亂數中的8個位元，以乘法取代除法，並拒絕會造成偏差的值。
+     *
+     * @param min 傳入範圍的下限
+     * @param size 傳入範圍的大小，必須在1~256之間
+     * @param threshold 傳入拒絕門檻值，必須為(256 - size) % size
+     * @return 傳回打包好的8個位元組
+     */
+    private long nextPackedBytes(final int min, final int size, final int threshold) {
+        long packed = 0;
+        int count = 0;
+        while (true) {
+            long rnd = engine.nextLong();
+            for (int k = 0; k < 8; ++k, rnd >>>= 8) {
+                final int m = ((int) rnd & 0xFF) * size;
+                if ((m & 0xFF) >= threshold) {
+                    packed |= (long) ((min + (m >>> 8)) & 0xFF) << (count << 3);
+                    if (++count == 8) {
+                        return packed;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 檢查陣列中的範圍是否合法。
+     *
+     * @param arrayLength 傳入陣列長度
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    private static void checkRange(final int arrayLength, final int offset, final int length) {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        if (offset < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("The range is out of the array.");
+        }
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * MagicRandomGenerator的執行統計，預設是關閉的。
+ * </p>
+ *
+ * <p>
+ * 開啟之後，每一類方法各自記錄呼叫次數、產生的數值數量、不重複抽樣時因為重複而重新抽選的次數，以及產生的資料量(位元組)。計數器使用LongAdder，多個執行緒同時更新時不會互相競爭。數量達到批次事件門檻值的批次操作，還會送出JFR事件(org.magiclen.magicrandom.BulkGeneration)，可以在JDK Flight Recorder中看到每次批次操作花費的時間。關閉的時候，每次呼叫只會多讀取一個volatile變數。
+ * </p>
+ *
+ * <p>
+ * 統計結果可以用snapshot方法取得，也可以呼叫registerMBean方法，透過JMX的MXBean讀取。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class MagicRandomMetrics {
+
+    /**
+     * 方法的分類。
+     */
+    public enum Family {
+        /**
+         * 長整數的randomLong、randomLongArray和fill方法。
+         */
+        LONG,
+        /**
+         * 整數的randomInteger、randomIntegerArray和fill方法。
+         */
+        INTEGER,
+        /**
+         * 短整數的randomShort、randomShortArray和fill方法。
+         */
+        SHORT,
+        /**
+         * 位元組的randomByte、randomByteArray和fill方法，包括填滿ByteBuffer。
+         */
+        BYTE,
+        /**
+         * 雙倍精準浮點數的randomDouble、randomDoubleArray和fill方法。
+         */
+        DOUBLE,
+        /**
+         * 單倍精準浮點數的randomFloat、randomFloatArray和fill方法。
+         */
+        FLOAT,
+        /**
+         * 常態分布、指數分布和卜瓦松分布的方法。
+         */
+        DISTRIBUTION,
+        /**
+         * shuffle方法，包括permutation方法。
+         */
+        SHUFFLE,
+        /**
+         * singlePickFromArray和pickMany方法。
+         */
+        PICK,
+        /**
+         * ints、longs、doubles和floats串流。數值數量在建立串流時就會被記錄。
+         */
+        STREAM
+    }
+
+    // -----類別常數-----
+    /**
+     * MXBean的物件名稱。
+     */
+    public static final String OBJECT_NAME = "org.magiclen.magicrandom:type=Metrics";
+    /**
+     * 預設的批次事件門檻值。
+     */
+    public static final int DEFAULT_BULK_EVENT_THRESHOLD = 1 << 16;
+
+    private static final int CALLS = 0;
+    private static final int VALUES = 1;
+    private static final int RETRIES = 2;
+    private static final int BYTES = 3;
+    private static final int COUNTER_KINDS = 4;
+    private static final String[] COUNTER_NAMES = {"calls", "values", "retries", "bytes"};
+
+    private static final Family[] FAMILIES = Family.values();
+    private static final LongAdder[] COUNTERS = new LongAdder[FAMILIES.length * COUNTER_KINDS];
+
+    static {
+        for (int i = 0; i < COUNTERS.length; ++i) {
+            COUNTERS[i] = new LongAdder();
+        }
+    }
+
+    // -----類別變數-----
+    private static volatile boolean enabled;
+    private static volatile int bulkEventThreshold = DEFAULT_BULK_EVENT_THRESHOLD;
+    private static boolean mbeanRegistered;
+
+    // -----類別方法-----
+    /**
+     * 判斷是否有開啟統計。
+     *
+     * @return 傳回是否有開啟統計
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 開啟或關閉統計。關閉後已經記錄的數值會被保留。
+     *
+     * @param enabled 傳入是否要開啟統計
+     */
+    public static void setEnabled(final boolean enabled) {
+        MagicRandomMetrics.enabled = enabled;
+    }
+
+    /**
+     * 取得批次事件門檻值。
+     *
+     * @return 傳回批次事件門檻值
+     */
+    public static int getBulkEventThreshold() {
+        return bulkEventThreshold;
+    }
+
+    /**
+     * 設定批次事件門檻值，產生的數值數量達到這個值的批次操作才會送出JFR事件。
+     *
+     * @param threshold 傳入批次事件門檻值，必須大於0
+     * @throws IllegalArgumentException 門檻值不合法的時候將拋出例外
+     */
+    public static void setBulkEventThreshold(final int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The threshold must be positive.");
+        }
+        bulkEventThreshold = threshold;
+    }
+
+    /**
+     * 取得目前的統計結果。各個計數器是分別讀取的，統計仍在進行時，結果不一定是同一個時間點的值。
+     *
+     * @return 傳回統計結果
+     */
+    public static Snapshot snapshot() {
+        final long[] values = new long[COUNTERS.length];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = COUNTERS[i].sum();
+        }
+        return new Snapshot(values);
+    }
+
+    /**
+     * 將所有計數器歸零。
+     */
+    public static void reset() {
+        for (final LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * 將統計的MXBean註冊到平台的MBeanServer，物件名稱為OBJECT_NAME。重複呼叫不會重複註冊。
+     *
+     * @throws IllegalStateException 註冊失敗的時候將拋出例外
+     */
+    public static synchronized void registerMBean() {
+        if (mbeanRegistered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMXBeanImpl(), new ObjectName(OBJECT_NAME));
+        } catch (final InstanceAlreadyExistsException ex) {
+            // 已經被其他類別載入器中的MagicRandom註冊了
+        } catch (final JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+        mbeanRegistered = true;
+    }
+
+    /**
+     * 記錄一次呼叫。
+     *
+     * @param family 傳入方法的分類
+     * @param values 傳入產生的數值數量
+     * @param bytes 傳入產生的資料量
+     */
+    static void record(final Family family, final long values, final long bytes) {
+        if (enabled) {
+            final int base = family.ordinal() * COUNTER_KINDS;
+            COUNTERS[base + CALLS].increment();
+            COUNTERS[base + VALUES].add(values);
+            COUNTERS[base + BYTES].add(bytes);
+        }
+    }
+
+    /**
+     * 記錄不重複抽樣時重新抽選的次數。
+     *
+     * @param family 傳入方法的分類
+     * @param retries 傳入重新抽選的次數
+     */
+    static void recordRetries(final Family family, final long retries) {
+        if (enabled && retries > 0) {
+            COUNTERS[family.ordinal() * COUNTER_KINDS + RETRIES].add(retries);
+        }
+    }
+
+    /**
+     * 記錄一次批次操作的呼叫，並在數量達到門檻值、JFR也有在記錄這個事件的時候開始一個JFR事件。
+     *
+     * @param family 傳入方法的分類
+     * @param operation 傳入操作的名稱
+     * @param values 傳入產生的數值數量
+     * @param bytes 傳入產生的資料量
+     * @return 傳回已經開始的事件，若不需要送出事件，將傳回null
+     */
+    static BulkGenerationEvent beginBulk(final Family family, final String operation, final long values, final long bytes) {
+        if (!enabled) {
+            return null;
+        }
+        record(family, values, bytes);
+        if (values < bulkEventThreshold) {
+            return null;
+        }
+        final BulkGenerationEvent event = new BulkGenerationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.family = family.name();
+        event.operation = operation;
+        event.values = values;
+        event.bytes = bytes;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 結束批次操作的JFR事件。
+     *
+     * @param event 傳入beginBulk方法傳回的事件，可以是null
+     */
+    static void endBulk(final BulkGenerationEvent event) {
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    /**
+     * 統計結果。
+     */
+    public static final class Snapshot {
+
+        private final long[] values;
+
+        Snapshot(final long[] values) {
+            this.values = values;
+        }
+
+        /**
+         * 取得呼叫次數。
+         *
+         * @param family 傳入方法的分類
+         * @return 傳回呼叫次數
+         */
+        public long getCalls(final Family family) {
+            return values[family.ordinal() * COUNTER_KINDS + CALLS];
+        }
+
+        /**
+         * 取得產生的數值數量。
+         *
+         * @param family 傳入方法的分類
+         * @return 傳回產生的數值數量
+         */
+        public long getValues(final Family family) {
+            return values[family.ordinal() * COUNTER_KINDS + VALUES];
+        }
+
+        /**
+         * 取得不重複抽樣時因為重複而重新抽選的次數。
+         *
+         * @param family 傳入方法的分類
+         * @return 傳回重新抽選的次數
+         */
+        public long getRetries(final Family family) {
+            return values[family.ordinal() * COUNTER_KINDS + RETRIES];
+        }
+
+        /**
+         * 取得產生的資料量。
+         *
+         * @param family 傳入方法的分類
+         * @return 傳回產生的位元組數量
+         */
+        public long getBytes(final Family family) {
+            return values[family.ordinal() * COUNTER_KINDS + BYTES];
+        }
+
+        /**
+         * 將統計結果轉成Map，鍵值的格式為「分類.計數器」，例如「long.calls」。
+         *
+         * @return 傳回不可修改的Map
+         */
+        public Map<String, Long> toMap() {
+            final Map<String, Long> map = new LinkedHashMap<>();
+            for (final Family family : FAMILIES) {
+                final String prefix = family.name().toLowerCase(Locale.ROOT) + '.';
+                final int base = family.ordinal() * COUNTER_KINDS;
+                for (int kind = 0; kind < COUNTER_KINDS; ++kind) {
+                    map.put(prefix + COUNTER_NAMES[kind], values[base + kind]);
+                }
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+        /**
+         * 取得每個分類的呼叫次數。
+         *
+         * @return 傳回每個分類的呼叫次數
+         */
+        public Map<Family, Long> callsByFamily() {
+            final Map<Family, Long> map = new EnumMap<>(Family.class);
+            for (final Family family : FAMILIES) {
+                map.put(family, getCalls(family));
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+        @Override
+        public String toString() {
+            return toMap().toString();
+        }
+    }
+
+    /**
+     * 統計的MXBean實作。
+     */
+    private static final class MetricsMXBeanImpl implements MagicRandomMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return MagicRandomMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(final boolean enabled) {
+            MagicRandomMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public int getBulkEventThreshold() {
+            return MagicRandomMetrics.getBulkEventThreshold();
+        }
+
+        @Override
+        public void setBulkEventThreshold(final int threshold) {
+            MagicRandomMetrics.setBulkEventThreshold(threshold);
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return snapshot().toMap();
+        }
+
+        @Override
+        public void reset() {
+            MagicRandomMetrics.reset();
+        }
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private MagicRandomMetrics() {
+
+    }
+}
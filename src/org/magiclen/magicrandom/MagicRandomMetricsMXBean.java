@@ -0,0 +1,68 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.util.Map;
+
+/**
+ * MagicRandomMetrics的JMX介面。
+ *
+ * @author Magic Len
+ */
+public interface MagicRandomMetricsMXBean {
+
+    /**
+     * 判斷是否有開啟統計。
+     *
+     * @return 傳回是否有開啟統計
+     */
+    boolean isEnabled();
+
+    /**
+     * 開啟或關閉統計。
+     *
+     * @param enabled 傳入是否要開啟統計
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * 取得批次事件門檻值。
+     *
+     * @return 傳回批次事件門檻值
+     */
+    int getBulkEventThreshold();
+
+    /**
+     * 設定批次事件門檻值。
+     *
+     * @param threshold 傳入批次事件門檻值，必須大於0
+     */
+    void setBulkEventThreshold(int threshold);
+
+    /**
+     * 取得所有計數器的值，鍵值的格式為「分類.計數器」，例如「long.calls」。
+     *
+     * @return 傳回所有計數器的值
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * 將所有計數器歸零。
+     */
+    void reset();
+}
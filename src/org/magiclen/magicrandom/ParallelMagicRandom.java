@@ -0,0 +1,610 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import org.magiclen.magicrandom.engine.RandomEngine;
+import org.magiclen.magicrandom.engine.Xoshiro256StarStarEngine;
+
+/**
+ * <p>
+ * 可重現的平行隨機陣列產生。陣列會被切成固定大小的區塊，第i個區塊使用由種子建立的xoshiro256**引擎跳躍i次(每次2^128步)後的子序列，再交給ForkJoinPool平行處理。
+ * </p>
+ *
+ * <p>
+ * 因為區塊的大小和每個區塊使用的子序列都只由種子決定，相同的種子一定會產生完全相同的陣列，和使用的執行緒數量無關。陣列的數字可以重複。平行洗牌也使用相同的方式分配子序列。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class ParallelMagicRandom {
+
+    // -----類別常數-----
+    /**
+     * 每個區塊的元素數量。改變這個數值會改變相同種子產生的結果。
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+    /**
+     * 平行洗牌時每個桶子預期的元素數量。改變這個數值會改變相同種子洗牌的結果。
+     */
+    private static final int SHUFFLE_CHUNK_SIZE = 1 << 16;
+    /**
+     * 平行洗牌時輸入區塊和桶子數量的上限，限制計數表的大小。改變這個數值會改變相同種子洗牌的結果。
+     */
+    private static final int MAX_SHUFFLE_PARTS = 1024;
+
+    // -----類別方法-----
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生一組長整數數列，數字可以重複。
+     *
+     * @param seed 傳入種子
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的長整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static long[] randomLongArray(final long seed, final long a, final long b, final int length) {
+        checkLength(length);
+        final long[] array = new long[length];
+        fill(ForkJoinPool.commonPool(), seed, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生長整數，寫入陣列中的一段範圍，數字可以重複。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fill(final ForkJoinPool pool, final long seed, final long[] dest, final int offset, final int length, final long a, final long b) {
+        checkRange(dest.length, offset, length);
+        run(pool, seed, offset, length, (generator, from, count) -> generator.fill(dest, from, count, a, b, false));
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生一組整數數列，數字可以重複。
+     *
+     * @param seed 傳入種子
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static int[] randomIntegerArray(final long seed, final int a, final int b, final int length) {
+        checkLength(length);
+        final int[] array = new int[length];
+        fill(ForkJoinPool.commonPool(), seed, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生整數，寫入陣列中的一段範圍，數字可以重複。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fill(final ForkJoinPool pool, final long seed, final int[] dest, final int offset, final int length, final int a, final int b) {
+        checkRange(dest.length, offset, length);
+        run(pool, seed, offset, length, (generator, from, count) -> generator.fill(dest, from, count, a, b, false));
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生一組短整數數列，數字可以重複。
+     *
+     * @param seed 傳入種子
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的短整數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static short[] randomShortArray(final long seed, final short a, final short b, final int length) {
+        checkLength(length);
+        final short[] array = new short[length];
+        fill(ForkJoinPool.commonPool(), seed, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生短整數，寫入陣列中的一段範圍，數字可以重複。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入短整數範圍的下限(或上限)
+     * @param b 傳入短整數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fill(final ForkJoinPool pool, final long seed, final short[] dest, final int offset, final int length, final short a, final short b) {
+        checkRange(dest.length, offset, length);
+        run(pool, seed, offset, length, (generator, from, count) -> generator.fill(dest, from, count, a, b, false));
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生一組位元組數列，數字可以重複。
+     *
+     * @param seed 傳入種子
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的位元組陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static byte[] randomByteArray(final long seed, final byte a, final byte b, final int length) {
+        checkLength(length);
+        final byte[] array = new byte[length];
+        fill(ForkJoinPool.commonPool(), seed, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生位元組，寫入陣列中的一段範圍，數字可以重複。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入位元組範圍的下限(或上限)
+     * @param b 傳入位元組範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fill(final ForkJoinPool pool, final long seed, final byte[] dest, final int offset, final int length, final byte a, final byte b) {
+        checkRange(dest.length, offset, length);
+        run(pool, seed, offset, length, (generator, from, count) -> generator.fill(dest, from, count, a, b, false));
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生一組雙倍精準浮點數數列，數字可以重複。
+     *
+     * @param seed 傳入種子
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的雙倍精準浮點數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static double[] randomDoubleArray(final long seed, final double a, final double b, final int length) {
+        checkLength(length);
+        final double[] array = new double[length];
+        fill(ForkJoinPool.commonPool(), seed, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生雙倍精準浮點數，寫入陣列中的一段範圍，數字可以重複。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fill(final ForkJoinPool pool, final long seed, final double[] dest, final int offset, final int length, final double a, final double b) {
+        checkRange(dest.length, offset, length);
+        run(pool, seed, offset, length, (generator, from, count) -> generator.fill(dest, from, count, a, b, false));
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生一組單倍精準浮點數數列，數字可以重複。
+     *
+     * @param seed 傳入種子
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @param length 傳入數列的長度
+     * @return 傳回隨機產生的單倍精準浮點數陣列
+     * @throws ArrayIndexOutOfBoundsException 無法產生陣列的時候將拋出例外
+     */
+    public static float[] randomFloatArray(final long seed, final float a, final float b, final int length) {
+        checkLength(length);
+        final float[] array = new float[length];
+        fill(ForkJoinPool.commonPool(), seed, array, 0, length, a, b);
+        return array;
+    }
+
+    /**
+     * 使用種子在a~b或是b~a的範圍內平行產生單倍精準浮點數，寫入陣列中的一段範圍，數字可以重複。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param a 傳入單倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入單倍精準浮點數範圍的上限(或下限)
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void fill(final ForkJoinPool pool, final long seed, final float[] dest, final int offset, final int length, final float a, final float b) {
+        checkRange(dest.length, offset, length);
+        run(pool, seed, offset, length, (generator, from, count) -> generator.fill(dest, from, count, a, b, false));
+    }
+
+    /**
+     * 使用種子將陣列中的一段範圍平行洗牌，每一種排列出現的機率都相同。相同的種子一定會得到相同的結果，和使用的執行緒數量無關。需要額外配置和範圍一樣長的暫存陣列。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final ForkJoinPool pool, final long seed, final long[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        if (length <= SHUFFLE_CHUNK_SIZE) {
+            new MagicRandomGenerator(new Xoshiro256StarStarEngine(seed)).shuffle(array, offset, length);
+            return;
+        }
+        final long[] temp = new long[length];
+        runShuffle(pool, seed, offset, length, new BucketShuffler() {
+            @Override
+            public void scatter(final RandomEngine engine, final int from, final int to, final int buckets, final int[] positions) {
+                for (int i = from; i < to; ++i) {
+                    temp[positions[BoundedRandom.nextInt(engine, buckets)]++] = array[i];
+                }
+            }
+
+            @Override
+            public void shuffle(final MagicRandomGenerator generator, final int start, final int count) {
+                generator.shuffle(temp, start, count);
+                System.arraycopy(temp, start, array, offset + start, count);
+            }
+        });
+    }
+
+    /**
+     * 使用種子將陣列中的一段範圍平行洗牌，每一種排列出現的機率都相同。相同的種子一定會得到相同的結果，和使用的執行緒數量無關。需要額外配置和範圍一樣長的暫存陣列。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final ForkJoinPool pool, final long seed, final int[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        if (length <= SHUFFLE_CHUNK_SIZE) {
+            new MagicRandomGenerator(new Xoshiro256StarStarEngine(seed)).shuffle(array, offset, length);
+            return;
+        }
+        final int[] temp = new int[length];
+        runShuffle(pool, seed, offset, length, new BucketShuffler() {
+            @Override
+            public void scatter(final RandomEngine engine, final int from, final int to, final int buckets, final int[] positions) {
+                for (int i = from; i < to; ++i) {
+                    temp[positions[BoundedRandom.nextInt(engine, buckets)]++] = array[i];
+                }
+            }
+
+            @Override
+            public void shuffle(final MagicRandomGenerator generator, final int start, final int count) {
+                generator.shuffle(temp, start, count);
+                System.arraycopy(temp, start, array, offset + start, count);
+            }
+        });
+    }
+
+    /**
+     * 使用種子將陣列中的一段範圍平行洗牌，每一種排列出現的機率都相同。相同的種子一定會得到相同的結果，和使用的執行緒數量無關。需要額外配置和範圍一樣長的暫存陣列。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static void shuffle(final ForkJoinPool pool, final long seed, final double[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        if (length <= SHUFFLE_CHUNK_SIZE) {
+            new MagicRandomGenerator(new Xoshiro256StarStarEngine(seed)).shuffle(array, offset, length);
+            return;
+        }
+        final double[] temp = new double[length];
+        runShuffle(pool, seed, offset, length, new BucketShuffler() {
+            @Override
+            public void scatter(final RandomEngine engine, final int from, final int to, final int buckets, final int[] positions) {
+                for (int i = from; i < to; ++i) {
+                    temp[positions[BoundedRandom.nextInt(engine, buckets)]++] = array[i];
+                }
+            }
+
+            @Override
+            public void shuffle(final MagicRandomGenerator generator, final int start, final int count) {
+                generator.shuffle(temp, start, count);
+                System.arraycopy(temp, start, array, offset + start, count);
+            }
+        });
+    }
+
+    /**
+     * 使用種子將陣列中的一段範圍平行洗牌，每一種排列出現的機率都相同。相同的種子一定會得到相同的結果，和使用的執行緒數量無關。需要額外配置和範圍一樣長的暫存陣列。
+     *
+     * @param <T> 陣列元素型態
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param array 傳入陣列
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public static <T> void shuffle(final ForkJoinPool pool, final long seed, final T[] array, final int offset, final int length) {
+        checkRange(array.length, offset, length);
+        if (length <= SHUFFLE_CHUNK_SIZE) {
+            new MagicRandomGenerator(new Xoshiro256StarStarEngine(seed)).shuffle(array, offset, length);
+            return;
+        }
+        final Object[] temp = new Object[length];
+        runShuffle(pool, seed, offset, length, new BucketShuffler() {
+            @Override
+            public void scatter(final RandomEngine engine, final int from, final int to, final int buckets, final int[] positions) {
+                for (int i = from; i < to; ++i) {
+                    temp[positions[BoundedRandom.nextInt(engine, buckets)]++] = array[i];
+                }
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void shuffle(final MagicRandomGenerator generator, final int start, final int count) {
+                generator.shuffle(temp, start, count);
+                for (int i = start, end = start + count; i < end; ++i) {
+                    array[offset + i] = (T) temp[i];
+                }
+            }
+        });
+    }
+
+    /**
+     * 為每個區塊準備跳躍後的引擎，再交給ForkJoinPool平行處理。
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     * @param filler 傳入填入區塊的方法
+     */
+    private static void run(final ForkJoinPool pool, final long seed, final int offset, final int length, final ChunkFiller filler) {
+        if (length == 0) {
+            return;
+        }
+        final int chunks = (int) (((long) length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        final Xoshiro256StarStarEngine[] engines = new Xoshiro256StarStarEngine[chunks];
+        final Xoshiro256StarStarEngine engine = new Xoshiro256StarStarEngine(seed);
+        for (int i = 0; i < chunks; ++i) {
+            engines[i] = engine.copy();
+            engine.jump();
+        }
+        pool.invoke(new FillTask(engines, 0, chunks, offset, length, filler));
+    }
+
+    /**
+     * 平行洗牌。每個元素先被均勻地分配到一個桶子中，依照桶子的順序搬到暫存陣列，再把每個桶子各自洗牌後搬回原本的陣列。在桶子大小固定的條件下，分到每個桶子的元素是均勻的隨機子集合，所以結果是均勻的隨機排列。
+     *
+     * <p>
+     * 範圍被切成數個輸入區塊，桶子的數量和輸入區塊相同。第k個輸入區塊使用跳躍k次的子序列分配桶子(先計算每個桶子的數量，再用相同的子序列重新產生一次來搬移元素)，第b個桶子使用跳躍(區塊數量 + b)次的子序列洗牌，所以結果只由種子決定。
+     * </p>
+     *
+     * @param pool 傳入要使用的ForkJoinPool
+     * @param seed 傳入種子
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @param shuffler 傳入搬移元素和洗牌的方法
+     */
+    private static void runShuffle(final ForkJoinPool pool, final long seed, final int offset, final int length, final BucketShuffler shuffler) {
+        final int parts = (int) Math.min(MAX_SHUFFLE_PARTS, ((long) length + SHUFFLE_CHUNK_SIZE - 1) / SHUFFLE_CHUNK_SIZE);
+        final int blockSize = (int) (((long) length + parts - 1) / parts);
+        final Xoshiro256StarStarEngine[] engines = new Xoshiro256StarStarEngine[parts * 2];
+        final Xoshiro256StarStarEngine engine = new Xoshiro256StarStarEngine(seed);
+        for (int i = 0; i < engines.length; ++i) {
+            engines[i] = engine.copy();
+            engine.jump();
+        }
+
+        // 計算每個輸入區塊分到每個桶子的元素數量
+        final int[][] positions = new int[parts][];
+        pool.invoke(new PartTask(0, parts, k -> {
+            final int[] counts = new int[parts];
+            final Xoshiro256StarStarEngine replay = engines[k].copy();
+            final int from = (int) Math.min(length, (long) k * blockSize);
+            final int to = (int) Math.min(length, (long) from + blockSize);
+            for (int i = from; i < to; ++i) {
+                ++counts[BoundedRandom.nextInt(replay, parts)];
+            }
+            positions[k] = counts;
+        }));
+
+        // 把數量轉成每個輸入區塊在每個桶子中的開始位置
+        final int[] bucketStarts = new int[parts + 1];
+        int position = 0;
+        for (int b = 0; b < parts; ++b) {
+            bucketStarts[b] = position;
+            for (int k = 0; k < parts; ++k) {
+                final int count = positions[k][b];
+                positions[k][b] = position;
+                position += count;
+            }
+        }
+        bucketStarts[parts] = position;
+
+        pool.invoke(new PartTask(0, parts, k -> {
+            final int from = (int) Math.min(length, (long) k * blockSize);
+            final int to = (int) Math.min(length, (long) from + blockSize);
+            shuffler.scatter(engines[k], offset + from, offset + to, parts, positions[k]);
+        }));
+        pool.invoke(new PartTask(0, parts, b -> shuffler.shuffle(new MagicRandomGenerator(engines[parts + b]), bucketStarts[b], bucketStarts[b + 1] - bucketStarts[b])));
+    }
+
+    /**
+     * 檢查陣列長度是否合法。
+     *
+     * @param length 傳入陣列長度
+     * @throws ArrayIndexOutOfBoundsException 長度為負數的時候將拋出例外
+     */
+    private static void checkLength(final int length) {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+    }
+
+    /**
+     * 檢查陣列中的範圍是否合法。
+     *
+     * @param arrayLength 傳入陣列長度
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    private static void checkRange(final int arrayLength, final int offset, final int length) {
+        checkLength(length);
+        if (offset < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("The range is out of the array.");
+        }
+    }
+
+    /**
+     * 填入一個區塊的方法。
+     */
+    @FunctionalInterface
+    private interface ChunkFiller {
+
+        /**
+         * 填入一個區塊。
+         *
+         * @param generator 傳入這個區塊使用的產生器
+         * @param from 傳入區塊的開始索引位置
+         * @param count 傳入區塊的元素數量
+         */
+        void fill(MagicRandomGenerator generator, int from, int count);
+    }
+
+    /**
+     * 以二分法遞迴分割區塊的任務。
+     */
+    private static final class FillTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Xoshiro256StarStarEngine[] engines;
+        private final int low, high;
+        private final int offset, length;
+        private final ChunkFiller filler;
+
+        FillTask(final Xoshiro256StarStarEngine[] engines, final int low, final int high, final int offset, final int length, final ChunkFiller filler) {
+            this.engines = engines;
+            this.low = low;
+            this.high = high;
+            this.offset = offset;
+            this.length = length;
+            this.filler = filler;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low > 1) {
+                final int middle = (low + high) >>> 1;
+                invokeAll(new FillTask(engines, low, middle, offset, length, filler), new FillTask(engines, middle, high, offset, length, filler));
+                return;
+            }
+            final int start = low * CHUNK_SIZE;
+            filler.fill(new MagicRandomGenerator(engines[low]), offset + start, Math.min(CHUNK_SIZE, length - start));
+        }
+    }
+
+    /**
+     * 平行洗牌時搬移元素和洗牌的方法。
+     */
+    private interface BucketShuffler {
+
+        /**
+         * 依照亂數把一個輸入區塊的元素搬到暫存陣列中各個桶子的位置。
+         *
+         * @param engine 傳入這個輸入區塊使用的亂數引擎
+         * @param from 傳入輸入區塊在原本陣列中的開始索引位置
+         * @param to 傳入輸入區塊在原本陣列中的結束索引位置(不包含)
+         * @param buckets 傳入桶子的數量
+         * @param positions 傳入這個輸入區塊在每個桶子中的下一個位置，會被更新
+         */
+        void scatter(RandomEngine engine, int from, int to, int buckets, int[] positions);
+
+        /**
+         * 將暫存陣列中的一個桶子洗牌，再搬回原本的陣列。
+         *
+         * @param generator 傳入這個桶子使用的產生器
+         * @param start 傳入桶子在暫存陣列中的開始索引位置
+         * @param count 傳入桶子的元素數量
+         */
+        void shuffle(MagicRandomGenerator generator, int start, int count);
+    }
+
+    /**
+     * 以二分法遞迴分割編號，對每個編號執行一個動作的任務。
+     */
+    private static final class PartTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int low, high;
+        private final IntConsumer action;
+
+        PartTask(final int low, final int high, final IntConsumer action) {
+            this.low = low;
+            this.high = high;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low > 1) {
+                final int middle = (low + high) >>> 1;
+                invokeAll(new PartTask(low, middle, action), new PartTask(middle, high, action));
+                return;
+            }
+            action.accept(low);
+        }
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private ParallelMagicRandom() {
+
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 產生卜瓦松分布的亂數。平均數小於10的時候使用逆變換法，從0開始累加機率；平均數比較大的時候使用Hörmann的PTRS演算法(transformed rejection with squeeze)，每個亂數平均只需要約2.3個均勻亂數，和平均數的大小無關。
+ * </p>
+ *
+ * <p>
+ * 和平均數有關的常數會在建構時計算好，批次產生亂數時可以重複使用。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class PoissonSampler {
+
+    // -----類別常數-----
+    /**
+     * 平均數達到這個數值時，改用PTRS演算法。
+     */
+    private static final double PTRS_THRESHOLD = 10;
+    /**
+     * ln(k!)的表格，k小於表格長度時直接查表。
+     */
+    private static final double[] LOG_FACTORIALS = new double[256];
+
+    static {
+        for (int k = 1; k < LOG_FACTORIALS.length; ++k) {
+            LOG_FACTORIALS[k] = LOG_FACTORIALS[k - 1] + Math.log(k);
+        }
+    }
+
+    // -----物件常數-----
+    private final double mean;
+    private final double expMinusMean;
+    private final double logMean;
+    private final double a, b, invAlpha, vr;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param mean 傳入平均數
+     * @throws IllegalArgumentException 平均數為負數或不是有限數值的時候將拋出例外
+     */
+    PoissonSampler(final double mean) {
+        if (!(mean >= 0) || Double.isInfinite(mean)) {
+            throw new IllegalArgumentException("The mean must be a finite non-negative number.");
+        }
+        this.mean = mean;
+        expMinusMean = Math.exp(-mean);
+        logMean = Math.log(mean);
+        final double squareRoot = Math.sqrt(mean);
+        b = 0.931 + 2.53 * squareRoot;
+        a = -0.059 + 0.02483 * b;
+        invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+        vr = 0.9277 - 3.6224 / (b - 2);
+    }
+
+    // -----物件方法-----
+    /**
+     * 判斷這個抽樣器是否使用指定的平均數，用來重複使用已經計算好的常數。
+     *
+     * @param mean 傳入平均數
+     * @return 傳回是否使用相同的平均數
+     */
+    boolean hasMean(final double mean) {
+        return Double.compare(this.mean, mean) == 0;
+    }
+
+    /**
+     * 取得一個卜瓦松分布的亂數。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回亂數
+     */
+    long sample(final RandomEngine engine) {
+        if (mean < PTRS_THRESHOLD) {
+            return inversion(engine);
+        }
+        while (true) {
+            final double u = engine.nextDouble() - 0.5;
+            final double v = engine.nextDouble();
+            final double us = 0.5 - Math.abs(u);
+            final long k = (long) Math.floor((2 * a / us + b) * u + mean + 0.43);
+            if (us >= 0.07 && v <= vr) {
+                return k;
+            }
+            if (k < 0 || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v * invAlpha / (a / (us * us) + b)) <= -mean + k * logMean - logFactorial(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * 使用逆變換法取得一個卜瓦松分布的亂數，期望的迴圈次數為平均數加1。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回亂數
+     */
+    private long inversion(final RandomEngine engine) {
+        while (true) {
+            final double u = engine.nextDouble();
+            double p = expMinusMean;
+            double cumulative = p;
+            long k = 0;
+            while (u >= cumulative) {
+                ++k;
+                p *= mean / k;
+                cumulative += p;
+                if (p == 0 && k > mean) {
+                    // 浮點數誤差讓累積機率無法超過u，機率極低，重新抽選
+                    break;
+                }
+            }
+            if (u < cumulative) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * 計算ln(k!)。k比較大的時候使用Stirling級數，誤差小於1e-12。
+     *
+     * @param k 傳入非負整數
+     * @return 傳回ln(k!)
+     */
+    private static double logFactorial(final long k) {
+        if (k < LOG_FACTORIALS.length) {
+            return LOG_FACTORIALS[(int) k];
+        }
+        final double x = k;
+        final double inverse = 1 / x;
+        final double inverseSquare = inverse * inverse;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x) + inverse * (1.0 / 12 - inverseSquare * (1.0 / 360 - inverseSquare / 1260));
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * <p>
+ * 隨機數值批次的發布者(Flow.Publisher)。每個批次是固定大小的long[]、int[]、double[]或ByteBuffer，只有在訂閱者用request方法要求的時候才會產生，不會超過訂閱者的需求。
+ * </p>
+ *
+ * <p>
+ * 批次是在指定的Executor上產生和送出的，可以是執行緒池，也可以是每個工作使用一個虛擬執行緒的Executor。每個訂閱都有自己的亂數引擎(從發布者的SplittableRandomEngine分割出來)，各自獨立，不會互相競爭。同一個訂閱的onNext、onError和onComplete不會同時被呼叫。
+ * </p>
+ *
+ * <p>
+ * 訂閱者用完一個批次之後，可以呼叫recycle方法把批次還給發布者，之後的批次會優先重複使用還回來的陣列或緩衝區，不必每次都配置新的記憶體。還回去的批次就不能再使用了。
+ * </p>
+ *
+ * @author Magic Len
+ * @param <T> 批次的型態
+ */
+public final class RandomBatchPublisher<T> implements Flow.Publisher<T> {
+
+    // -----類別常數-----
+    /**
+     * 預設可以保留的回收批次數量。
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    // -----物件常數-----
+    private final Executor executor;
+    private final int batchSize;
+    private final long batches;
+    private final Supplier<T> allocator;
+    private final BiConsumer<MagicRandomGenerator, T> filler;
+    private final ToIntFunction<T> sizeOf;
+    private final BlockingQueue<T> pool;
+    private final SplittableRandomEngine engine = new SplittableRandomEngine();
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param executor 傳入產生批次使用的Executor
+     * @param batchSize 傳入每個批次的數值數量
+     * @param batches 傳入每個訂閱可以取得的批次數量
+     * @param poolSize 傳入可以保留的回收批次數量
+     * @param allocator 傳入配置新批次的方法
+     * @param filler 傳入將亂數寫入批次的方法
+     * @param sizeOf 傳入取得批次大小的方法
+     */
+    private RandomBatchPublisher(final Executor executor, final int batchSize, final long batches, final int poolSize, final Supplier<T> allocator, final BiConsumer<MagicRandomGenerator, T> filler, final ToIntFunction<T> sizeOf) {
+        this.executor = Objects.requireNonNull(executor);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        if (batches < 0) {
+            throw new IllegalArgumentException("The number of batches can't be negative.");
+        }
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("The pool size must be positive.");
+        }
+        this.batchSize = batchSize;
+        this.batches = batches;
+        this.allocator = allocator;
+        this.filler = filler;
+        this.sizeOf = sizeOf;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    // -----類別方法-----
+    /**
+     * 建立發布a~b或是b~a範圍內長整數批次的發布者，數字可以重複。
+     *
+     * @param executor 傳入產生批次使用的Executor
+     * @param batchSize 傳入每個批次的數值數量
+     * @param batches 傳入每個訂閱可以取得的批次數量，Long.MAX_VALUE表示沒有限制
+     * @param a 傳入長整數範圍的下限(或上限)
+     * @param b 傳入長整數範圍的上限(或下限)
+     * @return 傳回發布者
+     * @throws IllegalArgumentException 批次大小不是正數或是批次數量為負數的時候將拋出例外
+     */
+    public static RandomBatchPublisher<long[]> longs(final Executor executor, final int batchSize, final long batches, final long a, final long b) {
+        return new RandomBatchPublisher<>(executor, batchSize, batches, DEFAULT_POOL_SIZE, () -> new long[batchSize], (generator, batch) -> generator.fill(batch, 0, batch.length, a, b, false), batch -> batch.length);
+    }
+
+    /**
+     * 建立發布a~b或是b~a範圍內整數批次的發布者，數字可以重複。
+     *
+     * @param executor 傳入產生批次使用的Executor
+     * @param batchSize 傳入每個批次的數值數量
+     * @param batches 傳入每個訂閱可以取得的批次數量，Long.MAX_VALUE表示沒有限制
+     * @param a 傳入整數範圍的下限(或上限)
+     * @param b 傳入整數範圍的上限(或下限)
+     * @return 傳回發布者
+     * @throws IllegalArgumentException 批次大小不是正數或是批次數量為負數的時候將拋出例外
+     */
+    public static RandomBatchPublisher<int[]> ints(final Executor executor, final int batchSize, final long batches, final int a, final int b) {
+        return new RandomBatchPublisher<>(executor, batchSize, batches, DEFAULT_POOL_SIZE, () -> new int[batchSize], (generator, batch) -> generator.fill(batch, 0, batch.length, a, b, false), batch -> batch.length);
+    }
+
+    /**
+     * 建立發布a~b或是b~a範圍內雙倍精準浮點數批次的發布者，數字可以重複。
+     *
+     * @param executor 傳入產生批次使用的Executor
+     * @param batchSize 傳入每個批次的數值數量
+     * @param batches 傳入每個訂閱可以取得的批次數量，Long.MAX_VALUE表示沒有限制
+     * @param a 傳入雙倍精準浮點數範圍的下限(或上限)
+     * @param b 傳入雙倍精準浮點數範圍的上限(或下限)
+     * @return 傳回發布者
+     * @throws IllegalArgumentException 批次大小不是正數或是批次數量為負數的時候將拋出例外
+     */
+    public static RandomBatchPublisher<double[]> doubles(final Executor executor, final int batchSize, final long batches, final double a, final double b) {
+        return new RandomBatchPublisher<>(executor, batchSize, batches, DEFAULT_POOL_SIZE, () -> new double[batchSize], (generator, batch) -> generator.fill(batch, 0, batch.length, a, b, false), batch -> batch.length);
+    }
+
+    /**
+     * 建立發布隨機位元組批次的發布者。批次是直接(direct)緩衝區，送出時位置為0，限制為批次大小，可以直接寫入通道。
+     *
+     * @param executor 傳入產生批次使用的Executor
+     * @param batchSize 傳入每個批次的位元組數量
+     * @param batches 傳入每個訂閱可以取得的批次數量，Long.MAX_VALUE表示沒有限制
+     * @return 傳回發布者
+     * @throws IllegalArgumentException 批次大小不是正數或是批次數量為負數的時候將拋出例外
+     */
+    public static RandomBatchPublisher<ByteBuffer> bytes(final Executor executor, final int batchSize, final long batches) {
+        return new RandomBatchPublisher<>(executor, batchSize, batches, DEFAULT_POOL_SIZE, () -> ByteBuffer.allocateDirect(batchSize), (generator, batch) -> {
+            batch.clear();
+            generator.fill(batch);
+            batch.flip();
+        }, ByteBuffer::capacity);
+    }
+
+    // -----物件方法-----
+    /**
+     * 取得每個批次的數值數量。
+     *
+     * @return 傳回每個批次的數值數量
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 取得每個訂閱可以取得的批次數量。
+     *
+     * @return 傳回批次數量，Long.MAX_VALUE表示沒有限制
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * 將用完的批次還給發布者，讓之後的批次重複使用。大小不符合的批次，或是回收的批次已經太多的時候，批次會被直接丟棄。同一個批次只能還一次，還了之後就不能再使用。
+     *
+     * @param batch 傳入用完的批次
+     */
+    public void recycle(final T batch) {
+        if (batch != null && sizeOf.applyAsInt(batch) == batchSize) {
+            pool.offer(batch);
+        }
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        final SplittableRandomEngine subscriptionEngine;
+        synchronized (engine) {
+            subscriptionEngine = engine.split();
+        }
+        final BatchSubscription subscription = new BatchSubscription(subscriber, new MagicRandomGenerator(subscriptionEngine));
+        subscriber.onSubscribe(subscription);
+        if (batches == 0) {
+            subscription.schedule();
+        }
+    }
+
+    /**
+     * 一個訂閱。需求數量記錄在requested中，工作中的標記(wip)確保同一時間只有一個執行緒在送出批次，執行中收到的新需求會由同一個執行緒接著處理。
+     */
+    private final class BatchSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final MagicRandomGenerator generator;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        /**
+         * 已經送出的批次數量，只會在drain方法中被存取。
+         */
+        private long emitted;
+
+        BatchSubscription(final Flow.Subscriber<? super T> subscriber, final MagicRandomGenerator generator) {
+            this.subscriber = subscriber;
+            this.generator = generator;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("The number of requested batches must be positive.");
+            } else {
+                long current, next;
+                do {
+                    current = requested.get();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                    next = current + n;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                } while (!requested.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * 若沒有執行緒在送出批次，就在Executor上開始送出。
+         */
+        void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (final RejectedExecutionException ex) {
+                    cancelled = true;
+                    subscriber.onError(ex);
+                }
+            }
+        }
+
+        /**
+         * 在需求數量之內產生並送出批次，直到沒有需求或是沒有新的工作為止。
+         */
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                final long r = requested.get();
+                long e = 0;
+                while (true) {
+                    if (cancelled) {
+                        return;
+                    }
+                    final Throwable ex = error;
+                    if (ex != null) {
+                        cancelled = true;
+                        subscriber.onError(ex);
+                        return;
+                    }
+                    if (emitted == batches) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (e == r) {
+                        break;
+                    }
+                    T batch = pool.poll();
+                    try {
+                        if (batch == null) {
+                            batch = allocator.get();
+                        }
+                        filler.accept(generator, batch);
+                    } catch (final RuntimeException | Error thrown) {
+                        // 產生批次失敗時，以onError結束訂閱(規則1.4)
+                        cancelled = true;
+                        subscriber.onError(thrown);
+                        return;
+                    }
+                    ++emitted;
+                    ++e;
+                    try {
+                        subscriber.onNext(batch);
+                    } catch (final RuntimeException | Error thrown) {
+                        // 訂閱者違反規範拋出例外，視為取消訂閱
+                        cancelled = true;
+                        throw thrown;
+                    }
+                }
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+/**
+ * <p>
+ * [0, size)範圍內的偽隨機排列。使用帶金鑰的Feistel網路，並以循環走訪(cycle walking)把結果限制在範圍內。
+ * </p>
+ *
+ * <p>
+ * 排列是一個雙射，所以第i個位置的值只由金鑰和i決定，不同的位置不會得到相同的值，也不需要記錄已經產生過的值。任何一段位置都可以被獨立計算，適合用來分割給多個執行緒。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class RandomPermutation {
+
+    // -----類別常數-----
+    /**
+     * Feistel網路的輪數。
+     */
+    private static final int ROUNDS = 6;
+
+    // -----物件常數-----
+    private final long size;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] keys;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param size 傳入範圍的大小，視為無號數，0表示2^64
+     * @param seed 傳入金鑰的種子
+     */
+    RandomPermutation(final long size, final long seed) {
+        this.size = size;
+        int bits = size == 0 ? 64 : 64 - Long.numberOfLeadingZeros(size - 1);
+        // 左右兩半的位元數相同
+        bits = Math.max(2, (bits + 1) & ~1);
+        halfBits = bits >>> 1;
+        halfMask = halfBits == 32 ? 0xFFFFFFFFL : (1L << halfBits) - 1;
+        keys = new long[ROUNDS];
+        long z = seed;
+        for (int i = 0; i < ROUNDS; ++i) {
+            keys[i] = mix(z += 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    // -----物件方法-----
+    /**
+     * 取得排列中第index個位置的值。
+     *
+     * @param index 傳入位置，視為無號數，必須小於範圍的大小
+     * @return 傳回值，視為無號數，會小於範圍的大小
+     */
+    long get(final long index) {
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (size != 0 && Long.compareUnsigned(value, size) >= 0);
+        return value;
+    }
+
+    /**
+     * 將數值經過一次Feistel網路。
+     *
+     * @param value 傳入數值
+     * @return 傳回結果
+     */
+    private long encrypt(final long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (int i = 0; i < ROUNDS; ++i) {
+            final long temp = right;
+            right = left ^ (mix(right ^ keys[i]) & halfMask);
+            left = temp;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * 混合64位元的數值。
+     *
+     * @param z 傳入要混合的數值
+     * @return 傳回混合後的數值
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
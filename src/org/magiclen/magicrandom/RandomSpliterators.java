@@ -0,0 +1,374 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * <p>
+ * 隨機數值串流使用的分割器(Spliterator)。
+ * </p>
+ *
+ * <p>
+ * 數值可以重複的分割器各自擁有一個SplittableRandomEngine，分割的時候會把引擎也一起分割，所以平行串流的每個子串流都使用互相獨立的亂數狀態，不會共用任何可變的狀態。數值不能重複的分割器則是依照位置從RandomPermutation取值，分割的時候只需要切開位置的範圍。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class RandomSpliterators {
+
+    // -----類別常數-----
+    /**
+     * 數值可以重複的分割器的特性。
+     */
+    private static final int CHARACTERISTICS = Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    /**
+     * 在[min, min + size)的範圍內產生整數的分割器。
+     */
+    static final class IntsSpliterator implements Spliterator.OfInt {
+
+        private final SplittableRandomEngine engine;
+        private long index;
+        private final long fence;
+        private final int min;
+        private final long size;
+
+        /**
+         * 建構子。
+         *
+         * @param engine 傳入亂數引擎
+         * @param index 傳入開始的位置
+         * @param fence 傳入結束的位置(不包含)
+         * @param min 傳入範圍的下限
+         * @param size 傳入範圍的大小，必須在1~2^32之間
+         */
+        IntsSpliterator(final SplittableRandomEngine engine, final long index, final long fence, final int min, final long size) {
+            this.engine = engine;
+            this.index = index;
+            this.fence = fence;
+            this.min = min;
+            this.size = size;
+        }
+
+        @Override
+        public IntsSpliterator trySplit() {
+            final long i = index, m = (i + fence) >>> 1;
+            if (m <= i) {
+                return null;
+            }
+            index = m;
+            return new IntsSpliterator(engine.split(), i, m, min, size);
+        }
+
+        @Override
+        public boolean tryAdvance(final IntConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                ++index;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final IntConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            final long f = fence;
+            long i = index;
+            index = f;
+            for (; i < f; ++i) {
+                consumer.accept(next());
+            }
+        }
+
+        /**
+         * 產生下一個整數。tryAdvance和forEachRemaining都使用這個方法，相同的種子一定會得到相同的序列。
+         *
+         * @return 傳回整數
+         */
+        private int next() {
+            if (size > Integer.MAX_VALUE) {
+                return min + (int) BoundedRandom.nextLong(engine, size);
+            }
+            return min + BoundedRandom.nextInt(engine, (int) size);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    /**
+     * 在[min, min + size)的範圍內產生長整數的分割器。
+     */
+    static final class LongsSpliterator implements Spliterator.OfLong {
+
+        private final SplittableRandomEngine engine;
+        private long index;
+        private final long fence;
+        private final long min;
+        private final long size;
+
+        /**
+         * 建構子。
+         *
+         * @param engine 傳入亂數引擎
+         * @param index 傳入開始的位置
+         * @param fence 傳入結束的位置(不包含)
+         * @param min 傳入範圍的下限
+         * @param size 傳入範圍的大小，視為無號數，0表示2^64
+         */
+        LongsSpliterator(final SplittableRandomEngine engine, final long index, final long fence, final long min, final long size) {
+            this.engine = engine;
+            this.index = index;
+            this.fence = fence;
+            this.min = min;
+            this.size = size;
+        }
+
+        @Override
+        public LongsSpliterator trySplit() {
+            final long i = index, m = (i + fence) >>> 1;
+            if (m <= i) {
+                return null;
+            }
+            index = m;
+            return new LongsSpliterator(engine.split(), i, m, min, size);
+        }
+
+        @Override
+        public boolean tryAdvance(final LongConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(min + BoundedRandom.nextLong(engine, size));
+                ++index;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final LongConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            final long f = fence;
+            long i = index;
+            index = f;
+            for (; i < f; ++i) {
+                consumer.accept(min + BoundedRandom.nextLong(engine, size));
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    /**
+     * 在[min, min + size)的範圍內產生雙倍精準浮點數(或是單倍精準浮點數)的分割器。
+     */
+    static final class DoublesSpliterator implements Spliterator.OfDouble {
+
+        private final SplittableRandomEngine engine;
+        private long index;
+        private final long fence;
+        private final double min;
+        private final double size;
+        private final boolean singlePrecision;
+
+        /**
+         * 建構子。
+         *
+         * @param engine 傳入亂數引擎
+         * @param index 傳入開始的位置
+         * @param fence 傳入結束的位置(不包含)
+         * @param min 傳入範圍的下限
+         * @param size 傳入範圍的大小
+         * @param singlePrecision 傳入是否要將數值轉成單倍精準浮點數
+         */
+        DoublesSpliterator(final SplittableRandomEngine engine, final long index, final long fence, final double min, final double size, final boolean singlePrecision) {
+            this.engine = engine;
+            this.index = index;
+            this.fence = fence;
+            this.min = min;
+            this.size = size;
+            this.singlePrecision = singlePrecision;
+        }
+
+        @Override
+        public DoublesSpliterator trySplit() {
+            final long i = index, m = (i + fence) >>> 1;
+            if (m <= i) {
+                return null;
+            }
+            index = m;
+            return new DoublesSpliterator(engine.split(), i, m, min, size, singlePrecision);
+        }
+
+        /**
+         * 產生下一個數值。
+         *
+         * @return 傳回數值
+         */
+        private double next() {
+            final double value = engine.nextDouble() * size + min;
+            return singlePrecision ? (float) value : value;
+        }
+
+        @Override
+        public boolean tryAdvance(final DoubleConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                ++index;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final DoubleConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            final long f = fence;
+            long i = index;
+            index = f;
+            for (; i < f; ++i) {
+                consumer.accept(next());
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    /**
+     * 在[min, min + size)的範圍內產生不重複長整數的分割器。第i個數值為min加上排列的第i個位置的值。
+     */
+    static final class UniqueLongsSpliterator implements Spliterator.OfLong {
+
+        private final RandomPermutation permutation;
+        private long index;
+        private final long fence;
+        private final long min;
+
+        /**
+         * 建構子。
+         *
+         * @param permutation 傳入排列
+         * @param index 傳入開始的位置
+         * @param fence 傳入結束的位置(不包含)
+         * @param min 傳入範圍的下限
+         */
+        UniqueLongsSpliterator(final RandomPermutation permutation, final long index, final long fence, final long min) {
+            this.permutation = permutation;
+            this.index = index;
+            this.fence = fence;
+            this.min = min;
+        }
+
+        @Override
+        public UniqueLongsSpliterator trySplit() {
+            final long i = index, m = (i + fence) >>> 1;
+            if (m <= i) {
+                return null;
+            }
+            index = m;
+            return new UniqueLongsSpliterator(permutation, i, m, min);
+        }
+
+        @Override
+        public boolean tryAdvance(final LongConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(min + permutation.get(index));
+                ++index;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final LongConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            final long f = fence;
+            long i = index;
+            index = f;
+            for (; i < f; ++i) {
+                consumer.accept(min + permutation.get(i));
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS | Spliterator.DISTINCT;
+        }
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private RandomSpliterators() {
+
+    }
+}
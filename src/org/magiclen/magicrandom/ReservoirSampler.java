@@ -0,0 +1,238 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 蓄水池抽樣(reservoir sampling)。只需要走訪一次長度未知的迭代器，使用O(k)的記憶體抽選出k個元素：
+ * </p>
+ *
+ * <ol>
+ * <li>均勻抽樣：使用Li的Algorithm L，直接計算下一個會進入蓄水池的位置，中間的元素只需要跳過，總共只需要O(k(1 + log(n/k)))個亂數。</li>
+ * <li>權重抽樣：使用Efraimidis–Spirakis的指數跳躍演算法(A-ExpJ)，和WeightedSampler相同，只是元素來自迭代器。</li>
+ * </ol>
+ *
+ * @author Magic Len
+ */
+final class ReservoirSampler {
+
+    // -----類別常數-----
+    /**
+     * 蓄水池一開始配置的最大容量，避免k很大而元素很少的時候浪費記憶體。
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    // -----類別方法-----
+    /**
+     * 從迭代器中均勻地抽選出k個元素。
+     *
+     * @param <T> 元素型態
+     * @param engine 傳入亂數引擎
+     * @param iterator 傳入迭代器
+     * @param k 傳入抽選數量，不能為負數
+     * @return 傳回抽選出來的元素，順序是隨機的。若元素少於k個，將傳回所有元素
+     */
+    static <T> List<T> sample(final RandomEngine engine, final Iterator<? extends T> iterator, final int k) {
+        final ArrayList<T> reservoir = new ArrayList<>(Math.min(k, INITIAL_CAPACITY));
+        while (reservoir.size() < k && iterator.hasNext()) {
+            reservoir.add(iterator.next());
+        }
+        if (k > 0 && iterator.hasNext()) {
+            double w = Math.exp(Math.log(nextOpenDouble(engine)) / k);
+            while (true) {
+                // 要跳過的元素數量服從幾何分布
+                long skip = (long) (Math.log(nextOpenDouble(engine)) / Math.log1p(-w));
+                while (skip > 0 && iterator.hasNext()) {
+                    iterator.next();
+                    --skip;
+                }
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                reservoir.set(BoundedRandom.nextInt(engine, k), iterator.next());
+                w *= Math.exp(Math.log(nextOpenDouble(engine)) / k);
+            }
+        }
+        // 蓄水池的位置和元素出現的順序有關，最後再洗牌
+        for (int i = reservoir.size() - 1; i > 0; --i) {
+            final int j = BoundedRandom.nextInt(engine, i + 1);
+            reservoir.set(i, reservoir.set(j, reservoir.get(i)));
+        }
+        return reservoir;
+    }
+
+    /**
+     * 依照權重值從迭代器中不放回地抽選出k個元素。權重值為0的元素不會被抽中。
+     *
+     * @param <T> 元素型態
+     * @param engine 傳入亂數引擎
+     * @param iterator 傳入迭代器
+     * @param k 傳入抽選數量，不能為負數
+     * @param weigher 傳入計算元素權重值的函數，負數將被取絕對值
+     * @return 傳回抽選出來的元素，依照抽中的順序排列。若權重值大於0的元素少於k個，將傳回所有權重值大於0的元素
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> sample(final RandomEngine engine, final Iterator<? extends T> iterator, final int k, final ToDoubleFunction<? super T> weigher) {
+        // 以鍵值排序的最小堆積，keys[0]是堆積中最小的鍵值
+        double[] keys = new double[Math.min(k, INITIAL_CAPACITY)];
+        Object[] elements = new Object[keys.length];
+        int size = 0;
+        while (size < k && iterator.hasNext()) {
+            final T element = iterator.next();
+            final double weight = weightOf(weigher, element);
+            if (weight > 0) {
+                if (size == keys.length) {
+                    final int capacity = (int) Math.min(k, size * 2L);
+                    keys = Arrays.copyOf(keys, capacity);
+                    elements = Arrays.copyOf(elements, capacity);
+                }
+                siftUp(keys, elements, size++, Math.log(nextOpenDouble(engine)) / weight, element);
+            }
+        }
+        if (k > 0 && size == k) {
+            double skip = Math.log(nextOpenDouble(engine)) / keys[0];
+            while (iterator.hasNext()) {
+                final T element = iterator.next();
+                final double weight = weightOf(weigher, element);
+                skip -= weight;
+                if (skip <= 0 && weight > 0) {
+                    final double t = Math.exp(keys[0] * weight);
+                    final double u = t + (1 - t) * nextOpenDouble(engine);
+                    final double key = Math.log(u) / weight;
+                    if (key > keys[0]) {
+                        siftDown(keys, elements, size, key, element);
+                    }
+                    skip = Math.log(nextOpenDouble(engine)) / keys[0];
+                }
+            }
+        }
+        // 依照鍵值由大到小排列
+        final Object[] ordered = new Object[size];
+        for (int n = size; n > 0; --n) {
+            ordered[n - 1] = elements[0];
+            siftDown(keys, elements, n - 1, keys[n - 1], elements[n - 1]);
+        }
+        final ArrayList<T> result = new ArrayList<>(size);
+        for (final Object element : ordered) {
+            result.add((T) element);
+        }
+        return result;
+    }
+
+    /**
+     * 計算元素的權重值。
+     *
+     * @param <T> 元素型態
+     * @param weigher 傳入計算元素權重值的函數
+     * @param element 傳入元素
+     * @return 傳回權重值的絕對值
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    private static <T> double weightOf(final ToDoubleFunction<? super T> weigher, final T element) {
+        final double weight = weigher.applyAsDouble(element);
+        if (Double.isNaN(weight) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("The weights must be finite.");
+        }
+        return Math.abs(weight);
+    }
+
+    /**
+     * 取得一個在(0, 1)範圍內的雙倍精準浮點數，不會是0，因此可以取對數。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回雙倍精準浮點數
+     */
+    private static double nextOpenDouble(final RandomEngine engine) {
+        return ((engine.nextLong() >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    /**
+     * 把一個元素放到堆積的最後，再往上調整。
+     *
+     * @param keys 傳入堆積的鍵值
+     * @param elements 傳入堆積的元素
+     * @param position 傳入元素的位置，也就是目前堆積的大小
+     * @param key 傳入元素的鍵值
+     * @param element 傳入元素
+     */
+    private static void siftUp(final double[] keys, final Object[] elements, int position, final double key, final Object element) {
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[position] = keys[parent];
+            elements[position] = elements[parent];
+            position = parent;
+        }
+        keys[position] = key;
+        elements[position] = element;
+    }
+
+    /**
+     * 用一個元素取代堆積的根，再往下調整。
+     *
+     * @param keys 傳入堆積的鍵值
+     * @param elements 傳入堆積的元素
+     * @param size 傳入堆積的大小
+     * @param key 傳入元素的鍵值
+     * @param element 傳入元素
+     */
+    private static void siftDown(final double[] keys, final Object[] elements, final int size, final double key, final Object element) {
+        int position = 0;
+        while (true) {
+            int child = (position << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                ++child;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[position] = keys[child];
+            elements[position] = elements[child];
+            position = child;
+        }
+        if (size > 0) {
+            keys[position] = key;
+            elements[position] = element;
+        }
+        if (size < elements.length) {
+            // 讓移出堆積的元素可以被回收
+            elements[size] = null;
+        }
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private ReservoirSampler() {
+
+    }
+}
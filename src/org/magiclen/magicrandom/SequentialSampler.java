@@ -0,0 +1,245 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 依照遞增的順序，從[min, min + size)的範圍內逐一抽選出不重複的長整數(Vitter的Algorithm D)。
+ * </p>
+ *
+ * <p>
+ * 每次只計算要跳過幾個數值，不需要記住已經抽選過的值，所以只使用O(1)的記憶體，抽選count個值的期望時間為O(count)。剩餘的範圍小於剩餘數量的13倍時，改用逐一判斷的Algorithm A，此時範圍已經很小，時間同樣是O(count)。
+ * </p>
+ *
+ * <p>
+ * 剩餘的範圍大於2^53時，雙倍精準浮點數算出來的跳過數量只會是ulp的倍數，因此只用浮點數決定跳過數量落在哪個ulp區間，區間內的位置再用整數均勻抽選，低位元才不會永遠是0。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class SequentialSampler implements PrimitiveIterator.OfLong {
+
+    // -----類別常數-----
+    /**
+     * 剩餘的範圍小於剩餘數量的這個倍數時，改用Algorithm A。
+     */
+    private static final double ALPHA_INVERSE = 13;
+
+    // -----物件常數-----
+    private final RandomEngine engine;
+    private final long min;
+
+    // -----物件變數-----
+    /**
+     * 下一個候選值和min的距離，視為無號數。
+     */
+    private long position;
+    /**
+     * 還要抽選的數量。
+     */
+    private long remaining;
+    /**
+     * 剩餘範圍的大小，視為無號數，0表示2^64。
+     */
+    private long population;
+    /**
+     * Algorithm D使用的V'，NaN表示需要重新產生。
+     */
+    private double vPrime = Double.NaN;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param engine 傳入亂數引擎
+     * @param min 傳入範圍的下限
+     * @param size 傳入範圍的大小，視為無號數，0表示2^64
+     * @param count 傳入抽樣數量，不能大於範圍的大小
+     */
+    SequentialSampler(final RandomEngine engine, final long min, final long size, final long count) {
+        this.engine = engine;
+        this.min = min;
+        this.population = size;
+        this.remaining = count;
+    }
+
+    // -----物件方法-----
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public long nextLong() {
+        if (remaining <= 0) {
+            throw new NoSuchElementException();
+        }
+        final long skip;
+        if (remaining == 1) {
+            skip = BoundedRandom.nextLong(engine, population);
+        } else if (ALPHA_INVERSE * remaining >= populationToDouble()) {
+            vPrime = Double.NaN;
+            skip = skipA();
+        } else {
+            skip = skipD();
+        }
+        position += skip;
+        final long value = min + position;
+        ++position;
+        population -= skip + 1;
+        --remaining;
+        return value;
+    }
+
+    /**
+     * 用Algorithm A計算下一個被選中的值之前要跳過的數量。
+     *
+     * @return 傳回要跳過的數量
+     */
+    private long skipA() {
+        double top = populationToDouble() - remaining;
+        double n = populationToDouble();
+        final double v = nextOpenDouble();
+        long skip = 0;
+        double quotient = top / n;
+        while (quotient > v) {
+            ++skip;
+            top -= 1.0;
+            n -= 1.0;
+            quotient = quotient * top / n;
+        }
+        return skip;
+    }
+
+    /**
+     * 用Algorithm D計算下一個被選中的值之前要跳過的數量。
+     *
+     * @return 傳回要跳過的數量
+     */
+    private long skipD() {
+        final long n = remaining;
+        final double nReal = n;
+        final double nInverse = 1.0 / nReal;
+        final double nMinus1Inverse = 1.0 / (nReal - 1.0);
+        final double bigN = populationToDouble();
+        // 跳過的數量必須小於qu1，也就是N - n + 1
+        final long qu1 = population - n + 1;
+        final double qu1Real = bigN - nReal + 1.0;
+        // 範圍大於2^53時，浮點數只能表示到ulp的倍數，區間內的低位元要另外抽選
+        final long bucket = bigN > 0x1.0p53 ? (long) Math.ulp(bigN) : 1;
+        if (Double.isNaN(vPrime)) {
+            vPrime = Math.exp(Math.log(nextOpenDouble()) * nInverse);
+        }
+        while (true) {
+            // D2：依照接近真實分布的連續分布產生候選的跳過數量
+            double x;
+            long skip;
+            while (true) {
+                x = bigN * (1.0 - vPrime);
+                skip = doubleToUnsigned(x);
+                if (bucket > 1) {
+                    skip = (skip & -bucket) + BoundedRandom.nextLong(engine, bucket);
+                }
+                if (Long.compareUnsigned(skip, qu1) < 0) {
+                    break;
+                }
+                vPrime = Math.exp(Math.log(nextOpenDouble()) * nInverse);
+            }
+            final double u = nextOpenDouble();
+            final double skipReal = unsignedToDouble(skip);
+
+            // D3：快速接受，接受時的V'可以直接用在下一個值
+            final double y1 = Math.exp(Math.log(u * bigN / qu1Real) * nMinus1Inverse);
+            vPrime = y1 * (1.0 - x / bigN) * (qu1Real / (qu1Real - skipReal));
+            if (vPrime <= 1.0) {
+                return skip;
+            }
+
+            // D4：計算真實的機率比
+            double y2 = 1.0;
+            double top = bigN - 1.0;
+            double bottom;
+            final long iterations;
+            if (Long.compareUnsigned(skip, n - 1) < 0) {
+                bottom = bigN - nReal;
+                iterations = skip;
+            } else {
+                bottom = bigN - 1.0 - skipReal;
+                iterations = n - 1;
+            }
+            for (long t = iterations; t > 0; --t) {
+                y2 = y2 * top / bottom;
+                top -= 1.0;
+                bottom -= 1.0;
+            }
+            if (bigN / (bigN - x) >= y1 * Math.exp(Math.log(y2) * nMinus1Inverse)) {
+                vPrime = Math.exp(Math.log(nextOpenDouble()) * nMinus1Inverse);
+                return skip;
+            }
+            vPrime = Math.exp(Math.log(nextOpenDouble()) * nInverse);
+        }
+    }
+
+    /**
+     * 取得(0, 1]之間的雙倍精準浮點數，避免對0取對數。
+     *
+     * @return 傳回雙倍精準浮點數
+     */
+    private double nextOpenDouble() {
+        return 1.0 - engine.nextDouble();
+    }
+
+    /**
+     * 將剩餘範圍的大小轉成雙倍精準浮點數。
+     *
+     * @return 傳回雙倍精準浮點數，0表示的2^64也會被正確轉換
+     */
+    private double populationToDouble() {
+        return population == 0 ? 0x1.0p64 : unsignedToDouble(population);
+    }
+
+    /**
+     * 將無號長整數轉成雙倍精準浮點數。
+     *
+     * @param value 傳入無號長整數
+     * @return 傳回雙倍精準浮點數
+     */
+    private static double unsignedToDouble(final long value) {
+        if (value >= 0) {
+            return value;
+        }
+        return (value >>> 1) * 2.0 + (value & 1);
+    }
+
+    /**
+     * 將小於2^64的非負雙倍精準浮點數無條件捨去，轉成無號長整數。
+     *
+     * @param value 傳入雙倍精準浮點數
+     * @return 傳回無號長整數
+     */
+    private static long doubleToUnsigned(final double value) {
+        if (value < 0x1.0p63) {
+            return (long) value;
+        }
+        return (long) (value - 0x1.0p63) ^ Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 隨機字串(權杖)產生器。從指定的字母表中隨機選出字元，適合用來產生ID、Session權杖或是測試用的字串。
+ * </p>
+ *
+ * <p>
+ * 字母表的大小為n時，每個字元使用ceil(log2(n))個位元，一個64位元的亂數可以切出好幾個字元，超出字母表的位元組合會被捨棄(拒絕取樣)，因此每個字元被選中的機率都相同。字母表大小為2的次方時(例如HEX和BASE64URL)不會捨棄任何位元組合。結果直接寫入char陣列、byte陣列或是StringBuilder，不會配置中間物件。產生器建構後不會再變動，是否為執行緒安全取決於使用的亂數引擎，預先建立好的產生器使用MagicRandom的預設產生器的亂數引擎，是執行緒安全的。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class TokenGenerator {
+
+    // -----類別常數-----
+    /**
+     * 字母表的最大長度。
+     */
+    public static final int MAX_ALPHABET_LENGTH = 1 << 16;
+    /**
+     * 使用數字0~9的產生器。
+     */
+    public static final TokenGenerator NUMERIC = new TokenGenerator("0123456789");
+    /**
+     * 使用小寫十六進制數字0~9和a~f的產生器。
+     */
+    public static final TokenGenerator HEX = new TokenGenerator("0123456789abcdef");
+    /**
+     * 使用小寫英文字母a~z的產生器。
+     */
+    public static final TokenGenerator LOWERCASE = new TokenGenerator("abcdefghijklmnopqrstuvwxyz");
+    /**
+     * 使用大寫英文字母A~Z的產生器。
+     */
+    public static final TokenGenerator UPPERCASE = new TokenGenerator("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    /**
+     * 使用數字和大小寫英文字母的產生器。
+     */
+    public static final TokenGenerator ALPHANUMERIC = new TokenGenerator("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+    /**
+     * 使用URL安全的Base64字母表(RFC 4648)的產生器。
+     */
+    public static final TokenGenerator BASE64URL = new TokenGenerator("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_");
+
+    // -----物件常數-----
+    private final RandomEngine engine;
+    private final char[] alphabet;
+    private final char[] table;
+    private final byte[] asciiTable;
+    private final int bitsPerCharacter;
+    private final int charactersPerDraw;
+    private final int mask;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用MagicRandom的預設產生器的亂數引擎。
+     *
+     * @param alphabet 傳入字母表
+     * @throws IllegalArgumentException 字母表是空的或是太長的時候將拋出例外
+     */
+    public TokenGenerator(final String alphabet) {
+        this(MagicRandom.getDefaultGenerator().getEngine(), alphabet);
+    }
+
+    /**
+     * 建構子。
+     *
+     * @param engine 傳入亂數引擎
+     * @param alphabet 傳入字母表，長度不能超過MAX_ALPHABET_LENGTH，重複的字元被選中的機率會比較高
+     * @throws IllegalArgumentException 字母表是空的或是太長的時候將拋出例外
+     */
+    public TokenGenerator(final RandomEngine engine, final String alphabet) {
+        if (engine == null) {
+            throw new NullPointerException("The engine can't be null.");
+        }
+        if (alphabet == null) {
+            throw new NullPointerException("The alphabet can't be null.");
+        }
+        final int n = alphabet.length();
+        if (n == 0) {
+            throw new IllegalArgumentException("The alphabet can't be empty.");
+        }
+        if (n > MAX_ALPHABET_LENGTH) {
+            throw new IllegalArgumentException("The alphabet can't have more than " + MAX_ALPHABET_LENGTH + " characters.");
+        }
+        this.engine = engine;
+        this.alphabet = alphabet.toCharArray();
+        bitsPerCharacter = Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+        charactersPerDraw = 64 / bitsPerCharacter;
+        mask = (1 << bitsPerCharacter) - 1;
+
+        // 查詢表補到2的次方的大小，超出字母表的位置只是佔位用，寫入後會被覆蓋
+        table = new char[mask + 1];
+        System.arraycopy(this.alphabet, 0, table, 0, n);
+
+        // 只有ASCII字元的字母表才能直接寫入byte陣列
+        byte[] ascii = new byte[mask + 1];
+        for (int i = 0; i < n; ++i) {
+            final char c = this.alphabet[i];
+            if (c > 0x7F) {
+                ascii = null;
+                break;
+            }
+            ascii[i] = (byte) c;
+        }
+        asciiTable = ascii;
+    }
+
+    // -----物件方法-----
+    /**
+     * 產生一個隨機字串。
+     *
+     * @param length 傳入字串長度
+     * @return 傳回隨機字串
+     * @throws ArrayIndexOutOfBoundsException 長度為負數的時候將拋出例外
+     */
+    public String nextToken(final int length) {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        final char[] token = new char[length];
+        fill(token, 0, length);
+        return new String(token);
+    }
+
+    /**
+     * 產生隨機字元，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的字元數量
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    public void fill(final char[] dest, final int offset, final int length) {
+        checkRange(dest.length, offset, length);
+        final char[] table = this.table;
+        final int n = alphabet.length;
+        final int bitsPerCharacter = this.bitsPerCharacter;
+        final int charactersPerDraw = this.charactersPerDraw;
+        final int mask = this.mask;
+        final int end = offset + length;
+        int i = offset;
+        // 先寫入再決定是否前進，被拒絕的位元組合會被下一個字元覆蓋，迴圈中沒有難以預測的分支
+        while (end - i >= charactersPerDraw) {
+            long bits = engine.nextLong();
+            for (int k = charactersPerDraw; k > 0; --k) {
+                final int index = (int) bits & mask;
+                bits >>>= bitsPerCharacter;
+                dest[i] = table[index];
+                i += index < n ? 1 : 0;
+            }
+        }
+        while (i < end) {
+            long bits = engine.nextLong();
+            for (int k = charactersPerDraw; k > 0 && i < end; --k) {
+                final int index = (int) bits & mask;
+                bits >>>= bitsPerCharacter;
+                dest[i] = table[index];
+                i += index < n ? 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * 產生隨機字元的ASCII碼，寫入陣列中的一段範圍。不會配置新的陣列。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的字元數量
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     * @throws UnsupportedOperationException 字母表中有非ASCII字元的時候將拋出例外
+     */
+    public void fill(final byte[] dest, final int offset, final int length) {
+        final byte[] table = asciiTable;
+        if (table == null) {
+            throw new UnsupportedOperationException("The alphabet contains non-ASCII characters.");
+        }
+        checkRange(dest.length, offset, length);
+        final int n = alphabet.length;
+        final int bitsPerCharacter = this.bitsPerCharacter;
+        final int charactersPerDraw = this.charactersPerDraw;
+        final int mask = this.mask;
+        final int end = offset + length;
+        int i = offset;
+        while (end - i >= charactersPerDraw) {
+            long bits = engine.nextLong();
+            for (int k = charactersPerDraw; k > 0; --k) {
+                final int index = (int) bits & mask;
+                bits >>>= bitsPerCharacter;
+                dest[i] = table[index];
+                i += index < n ? 1 : 0;
+            }
+        }
+        while (i < end) {
+            long bits = engine.nextLong();
+            for (int k = charactersPerDraw; k > 0 && i < end; --k) {
+                final int index = (int) bits & mask;
+                bits >>>= bitsPerCharacter;
+                dest[i] = table[index];
+                i += index < n ? 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * 產生隨機字元，附加到StringBuilder的後面。
+     *
+     * @param sb 傳入StringBuilder
+     * @param length 傳入要附加的字元數量
+     * @throws ArrayIndexOutOfBoundsException 數量為負數的時候將拋出例外
+     */
+    public void append(final StringBuilder sb, final int length) {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        sb.ensureCapacity(sb.length() + length);
+        final char[] alphabet = this.alphabet;
+        final int n = alphabet.length;
+        final int bitsPerCharacter = this.bitsPerCharacter;
+        final int charactersPerDraw = this.charactersPerDraw;
+        final int mask = this.mask;
+        int remaining = length;
+        while (remaining > 0) {
+            long bits = engine.nextLong();
+            for (int k = charactersPerDraw; k > 0 && remaining > 0; --k) {
+                final int index = (int) bits & mask;
+                bits >>>= bitsPerCharacter;
+                if (index < n) {
+                    sb.append(alphabet[index]);
+                    --remaining;
+                }
+            }
+        }
+    }
+
+    /**
+     * 取得字母表。
+     *
+     * @return 傳回字母表
+     */
+    public String getAlphabet() {
+        return new String(alphabet);
+    }
+
+    /**
+     * 檢查陣列中的範圍是否合法。
+     *
+     * @param arrayLength 傳入陣列長度
+     * @param offset 傳入範圍的開始索引位置
+     * @param length 傳入範圍的長度
+     * @throws ArrayIndexOutOfBoundsException 範圍超出陣列的時候將拋出例外
+     */
+    private static void checkRange(final int arrayLength, final int offset, final int length) {
+        if (length < 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of an array can't be negative.");
+        }
+        if (offset < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("The range is out of the array.");
+        }
+    }
+}
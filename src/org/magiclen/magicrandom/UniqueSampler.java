@@ -0,0 +1,371 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 不重複整數的抽樣。依照抽樣數量和範圍大小的比例選擇演算法，全程不會裝箱：
+ * </p>
+ *
+ * <ol>
+ * <li>密集(範圍不超過抽樣數量的4倍)：對範圍內的所有偏移量做部分的Fisher–Yates洗牌。</li>
+ * <li>中等(範圍不超過抽樣數量的64倍)：重新抽選，使用位元集合記錄已經抽過的偏移量。</li>
+ * <li>稀疏：重新抽選，使用開放定址的長整數集合記錄已經抽過的偏移量。</li>
+ * </ol>
+ *
+ * <p>
+ * 所有演算法抽出的數列都是均勻分布的，順序也是隨機的。短整數和位元組的範圍很小，改用Vitter的依序抽樣直接寫入目標陣列再就地洗牌，不需要配置任何暫存陣列。
+ * </p>
+ *
+ * <p>
+ * 浮點數會先對應到IEEE-754位元表示法的序號，序號的大小順序和浮點數相同，相鄰的序號就是相鄰的可表示值，因此範圍內可表示值的數量可以精確計算。可表示值的數量不超過抽樣數量的4倍時，直接抽選不重複的序號，每個可表示值被選中的機率都相同；否則在數值上均勻抽選，再以序號判斷是否重複。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class UniqueSampler {
+
+    // -----類別常數-----
+    /**
+     * 範圍大小不超過抽樣數量的這個倍數時，使用部分的Fisher–Yates洗牌。
+     */
+    private static final int DENSE_FACTOR = 4;
+    /**
+     * 範圍大小不超過抽樣數量的這個倍數時，使用位元集合。
+     */
+    private static final int BITSET_FACTOR = 64;
+    /**
+     * 位元集合可以處理的最大範圍。
+     */
+    private static final long MAX_BITSET_SIZE = 1L << 34;
+    /**
+     * 陣列的最大長度。
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    // -----類別方法-----
+    /**
+     * 在[min, min + size)的範圍內隨機抽選出不重複的整數。
+     *
+     * @param engine 傳入亂數引擎
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入抽樣數量
+     * @param min 傳入範圍的下限
+     * @param size 傳入範圍的大小，必須在1~2^32之間，且不能小於抽樣數量
+     * @return 傳回因為重複而重新抽選的次數
+     */
+    static long sampleInts(final RandomEngine engine, final int[] dest, final int offset, final int length, final int min, final long size) {
+        if (size <= (long) length * DENSE_FACTOR && size <= MAX_ARRAY_LENGTH) {
+            final int n = (int) size;
+            final int[] pool = new int[n];
+            for (int i = 0; i < n; ++i) {
+                pool[i] = i;
+            }
+            for (int i = 0; i < length; ++i) {
+                final int j = i + (int) BoundedRandom.nextLong(engine, n - i);
+                final int value = pool[j];
+                pool[j] = pool[i];
+                dest[offset + i] = min + value;
+            }
+            return 0;
+        } else if (size <= (long) length * BITSET_FACTOR) {
+            final long[] bits = new long[(int) ((size + 63) >>> 6)];
+            long draws = 0;
+            for (int i = 0; i < length; ++i) {
+                long value;
+                do {
+                    ++draws;
+                    value = BoundedRandom.nextLong(engine, size);
+                } while (!setBit(bits, value));
+                dest[offset + i] = min + (int) value;
+            }
+            return draws - length;
+        } else {
+            final LongHashSet set = new LongHashSet(length);
+            long draws = 0;
+            for (int i = 0; i < length; ++i) {
+                long value;
+                do {
+                    ++draws;
+                    value = BoundedRandom.nextLong(engine, size);
+                } while (!set.add(value));
+                dest[offset + i] = min + (int) value;
+            }
+            return draws - length;
+        }
+    }
+
+    /**
+     * 在[min, min + size)的範圍內隨機抽選出不重複的短整數。先用SequentialSampler依照遞增的順序抽選，直接寫入目標陣列，再將這段範圍洗牌，不會配置暫存陣列。
+     *
+     * @param engine 傳入亂數引擎
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入抽樣數量
+     * @param min 傳入範圍的下限
+     * @param size 傳入範圍的大小，不能小於抽樣數量
+     */
+    static void sampleShorts(final RandomEngine engine, final short[] dest, final int offset, final int length, final int min, final int size) {
+        final SequentialSampler sampler = new SequentialSampler(engine, min, size, length);
+        for (int i = 0; i < length; ++i) {
+            dest[offset + i] = (short) sampler.nextLong();
+        }
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final short temp = dest[offset + i];
+            dest[offset + i] = dest[j];
+            dest[j] = temp;
+        }
+    }
+
+    /**
+     * 在[min, min + size)的範圍內隨機抽選出不重複的位元組。先用SequentialSampler依照遞增的順序抽選，直接寫入目標陣列，再將這段範圍洗牌，不會配置暫存陣列。
+     *
+     * @param engine 傳入亂數引擎
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入抽樣數量
+     * @param min 傳入範圍的下限
+     * @param size 傳入範圍的大小，不能小於抽樣數量
+     */
+    static void sampleBytes(final RandomEngine engine, final byte[] dest, final int offset, final int length, final int min, final int size) {
+        final SequentialSampler sampler = new SequentialSampler(engine, min, size, length);
+        for (int i = 0; i < length; ++i) {
+            dest[offset + i] = (byte) sampler.nextLong();
+        }
+        for (int i = length - 1; i > 0; --i) {
+            final int j = offset + BoundedRandom.nextInt(engine, i + 1);
+            final byte temp = dest[offset + i];
+            dest[offset + i] = dest[j];
+            dest[j] = temp;
+        }
+    }
+
+    /**
+     * 在[min, min + size)的範圍內隨機抽選出不重複的長整數。
+     *
+     * @param engine 傳入亂數引擎
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入抽樣數量
+     * @param min 傳入範圍的下限
+     * @param size 傳入範圍的大小，視為無號數，0表示2^64，不能小於抽樣數量
+     * @return 傳回因為重複而重新抽選的次數
+     */
+    static long sampleLongs(final RandomEngine engine, final long[] dest, final int offset, final int length, final long min, final long size) {
+        if (size > 0 && size <= (long) length * DENSE_FACTOR && size <= MAX_ARRAY_LENGTH) {
+            final int n = (int) size;
+            final int[] pool = new int[n];
+            for (int i = 0; i < n; ++i) {
+                pool[i] = i;
+            }
+            for (int i = 0; i < length; ++i) {
+                final int j = i + (int) BoundedRandom.nextLong(engine, n - i);
+                final int value = pool[j];
+                pool[j] = pool[i];
+                dest[offset + i] = min + value;
+            }
+            return 0;
+        } else if (size > 0 && size <= (long) length * BITSET_FACTOR && size <= MAX_BITSET_SIZE) {
+            final long[] bits = new long[(int) ((size + 63) >>> 6)];
+            long draws = 0;
+            for (int i = 0; i < length; ++i) {
+                long value;
+                do {
+                    ++draws;
+                    value = BoundedRandom.nextLong(engine, size);
+                } while (!setBit(bits, value));
+                dest[offset + i] = min + value;
+            }
+            return draws - length;
+        } else {
+            final LongHashSet set = new LongHashSet(length);
+            long draws = 0;
+            for (int i = 0; i < length; ++i) {
+                long value;
+                do {
+                    ++draws;
+                    value = BoundedRandom.nextLong(engine, size);
+                } while (!set.add(value));
+                dest[offset + i] = min + value;
+            }
+            return draws - length;
+        }
+    }
+
+    /**
+     * 在[min, max)的範圍內隨機抽選出不重複的雙倍精準浮點數。min和max相同時，範圍內只有min一個值。
+     *
+     * @param engine 傳入亂數引擎
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入抽樣數量
+     * @param min 傳入範圍的下限
+     * @param max 傳入範圍的上限，不能小於下限
+     * @return 傳回因為重複而重新抽選的次數
+     * @throws ArrayIndexOutOfBoundsException 抽樣數量超過範圍內可表示值的數量的時候將拋出例外
+     */
+    static long sampleDoubles(final RandomEngine engine, final double[] dest, final int offset, final int length, final double min, final double max) {
+        final long low = doubleToOrdinal(min);
+        // 可表示值的數量視為無號數
+        final long count = max == min ? 1 : doubleToOrdinal(max) - low;
+        if (Long.compareUnsigned(length, count) > 0) {
+            throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than the number of representable values between a and b.");
+        }
+        if (Long.compareUnsigned(count, (long) length * DENSE_FACTOR) <= 0) {
+            final long[] ordinals = new long[length];
+            final long retries = sampleLongs(engine, ordinals, 0, length, low, count);
+            for (int i = 0; i < length; ++i) {
+                dest[offset + i] = ordinalToDouble(ordinals[i]);
+            }
+            return retries;
+        } else {
+            // 範圍大小可能超過Double.MAX_VALUE，所以分成兩半來計算，避免溢位
+            final double half = max * 0.5 - min * 0.5;
+            final LongHashSet set = new LongHashSet(length);
+            long draws = 0;
+            for (int i = 0; i < length; ++i) {
+                double value;
+                long ordinal;
+                do {
+                    ++draws;
+                    final double rnd = engine.nextDouble() * half;
+                    value = rnd + min + rnd;
+                    ordinal = doubleToOrdinal(value);
+                    // 捨入到上限的值不在範圍內
+                } while (Long.compareUnsigned(ordinal - low, count) >= 0 || !set.add(ordinal));
+                dest[offset + i] = value;
+            }
+            return draws - length;
+        }
+    }
+
+    /**
+     * 在[min, max)的範圍內隨機抽選出不重複的單倍精準浮點數。min和max相同時，範圍內只有min一個值。
+     *
+     * @param engine 傳入亂數引擎
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入抽樣數量
+     * @param min 傳入範圍的下限
+     * @param max 傳入範圍的上限，不能小於下限
+     * @return 傳回因為重複而重新抽選的次數
+     * @throws ArrayIndexOutOfBoundsException 抽樣數量超過範圍內可表示值的數量的時候將拋出例外
+     */
+    static long sampleFloats(final RandomEngine engine, final float[] dest, final int offset, final int length, final float min, final float max) {
+        final int low = floatToOrdinal(min);
+        final long count = max == min ? 1 : (long) floatToOrdinal(max) - low;
+        if (length > count) {
+            throw new ArrayIndexOutOfBoundsException("The length of this array can't larger than the number of representable values between a and b.");
+        }
+        if (count <= (long) length * DENSE_FACTOR) {
+            final int[] ordinals = new int[length];
+            final long retries = sampleInts(engine, ordinals, 0, length, low, count);
+            for (int i = 0; i < length; ++i) {
+                dest[offset + i] = ordinalToFloat(ordinals[i]);
+            }
+            return retries;
+        } else {
+            final double size = (double) max - min;
+            final LongHashSet set = new LongHashSet(length);
+            long draws = 0;
+            for (int i = 0; i < length; ++i) {
+                float value;
+                int ordinal;
+                do {
+                    ++draws;
+                    value = (float) (engine.nextDouble() * size + min);
+                    ordinal = floatToOrdinal(value);
+                } while ((long) ordinal - low >= count || !set.add(ordinal));
+                dest[offset + i] = value;
+            }
+            return draws - length;
+        }
+    }
+
+    /**
+     * 將雙倍精準浮點數轉成序號。正數的序號就是它的位元，負數的序號是它的絕對值的位元再取負號，所以0.0和-0.0的序號都是0。
+     *
+     * @param value 傳入雙倍精準浮點數
+     * @return 傳回序號
+     */
+    private static long doubleToOrdinal(final double value) {
+        final long bits = Double.doubleToRawLongBits(value);
+        return bits >= 0 ? bits : -(bits & Long.MAX_VALUE);
+    }
+
+    /**
+     * 將序號轉回雙倍精準浮點數。
+     *
+     * @param ordinal 傳入序號
+     * @return 傳回雙倍精準浮點數
+     */
+    private static double ordinalToDouble(final long ordinal) {
+        return ordinal >= 0 ? Double.longBitsToDouble(ordinal) : -Double.longBitsToDouble(-ordinal);
+    }
+
+    /**
+     * 將單倍精準浮點數轉成序號。
+     *
+     * @param value 傳入單倍精準浮點數
+     * @return 傳回序號
+     */
+    private static int floatToOrdinal(final float value) {
+        final int bits = Float.floatToRawIntBits(value);
+        return bits >= 0 ? bits : -(bits & Integer.MAX_VALUE);
+    }
+
+    /**
+     * 將序號轉回單倍精準浮點數。
+     *
+     * @param ordinal 傳入序號
+     * @return 傳回單倍精準浮點數
+     */
+    private static float ordinalToFloat(final int ordinal) {
+        return ordinal >= 0 ? Float.intBitsToFloat(ordinal) : -Float.intBitsToFloat(-ordinal);
+    }
+
+    /**
+     * 設定位元集合中的一個位元。
+     *
+     * @param bits 傳入位元集合
+     * @param index 傳入位元的索引位置
+     * @return 傳回位元原本是否為0
+     */
+    private static boolean setBit(final long[] bits, final long index) {
+        final int word = (int) (index >>> 6);
+        final long mask = 1L << index;
+        final long old = bits[word];
+        if ((old & mask) != 0) {
+            return false;
+        }
+        bits[word] = old | mask;
+        return true;
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private UniqueSampler() {
+
+    }
+}
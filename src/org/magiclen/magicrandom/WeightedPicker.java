@@ -0,0 +1,173 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 預先編譯好的權重抽選器。抽選的規則和MagicRandom的singlePickFromArray方法相同，陣列會依照權重值的數量被平均分成數個抽選區域，每個區域被抽中的機率和它的權重值成正比，區域內的元素被抽中的機率相同。
+ * </p>
+ *
+ * <p>
+ * 抽選器在建構時會使用Walker/Vose的別名法(alias method)建立別名表，之後每次抽選都只需要一個64位元的亂數，時間複雜度為O(1)。抽選器建構後不會再變動，是否為執行緒安全取決於使用的亂數引擎。
+ * </p>
+ *
+ * @author Magic Len
+ * @param <T> 陣列元素型態
+ */
+public final class WeightedPicker<T> {
+
+    // -----類別常數-----
+    /**
+     * 機率門檻值的滿值，代表一定選擇自己的欄位。
+     */
+    private static final long FULL_THRESHOLD = 1L << 32;
+
+    // -----物件常數-----
+    private final RandomEngine engine;
+    private final T[] array;
+    private final long[] thresholds;
+    private final int[] aliases;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用MagicRandom的預設產生器的亂數引擎。
+     *
+     * @param array 傳入陣列
+     * @param weights 傳入抽選區域的權重值，若為null或是沒有權重值，表示所有元素的權重相同
+     */
+    public WeightedPicker(final T[] array, final double... weights) {
+        this(MagicRandom.getDefaultGenerator().getEngine(), array, weights);
+    }
+
+    /**
+     * 建構子。
+     *
+     * @param engine 傳入亂數引擎
+     * @param array 傳入陣列
+     * @param weights 傳入抽選區域的權重值，負數將被取絕對值，若為null或是沒有權重值，表示所有元素的權重相同
+     */
+    public WeightedPicker(final RandomEngine engine, final T[] array, double... weights) {
+        if (engine == null) {
+            throw new NullPointerException("The engine can't be null.");
+        }
+        if (array == null) {
+            throw new NullPointerException("The array can't be null.");
+        }
+        final int arrayLength = array.length;
+        if (arrayLength == 0) {
+            throw new RuntimeException("Array is empty.");
+        }
+        if (weights == null || weights.length == 0) {
+            weights = new double[]{1};
+        }
+        this.engine = engine;
+        this.array = array.clone();
+
+        // 把每個抽選區域的權重值平均分給區域內的元素
+        final double[] elementWeights = WeightedSampler.elementWeights(arrayLength, weights);
+        double weightsSum = 0;
+        for (final double weight : elementWeights) {
+            weightsSum += Math.abs(weight);
+        }
+
+        if (Double.isNaN(weightsSum) || Double.isInfinite(weightsSum)) {
+            throw new IllegalArgumentException("The weights must be finite.");
+        }
+        if (weightsSum == 0) {
+            thresholds = null;
+            aliases = null;
+            return;
+        }
+
+        thresholds = new long[arrayLength];
+        aliases = new int[arrayLength];
+        buildAliasTable(elementWeights, weightsSum);
+    }
+
+    // -----物件方法-----
+    /**
+     * 使用Vose的方法建立別名表。
+     *
+     * @param elementWeights 傳入每個元素的權重值，負數將被取絕對值
+     * @param weightsSum 傳入權重值總和
+     */
+    private void buildAliasTable(final double[] elementWeights, final double weightsSum) {
+        final int n = elementWeights.length;
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallSize = 0, largeSize = 0;
+        for (int i = 0; i < n; ++i) {
+            scaled[i] = Math.abs(elementWeights[i]) * n / weightsSum;
+            aliases[i] = i;
+            if (scaled[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            final int s = small[--smallSize];
+            final int l = large[--largeSize];
+            thresholds[s] = (long) (scaled[s] * FULL_THRESHOLD);
+            aliases[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1;
+            if (scaled[l] < 1) {
+                small[smallSize++] = l;
+            } else {
+                large[largeSize++] = l;
+            }
+        }
+        // 剩下的欄位只會因為浮點數誤差而偏離1，直接視為滿值
+        while (largeSize > 0) {
+            thresholds[large[--largeSize]] = FULL_THRESHOLD;
+        }
+        while (smallSize > 0) {
+            thresholds[small[--smallSize]] = FULL_THRESHOLD;
+        }
+    }
+
+    /**
+     * 隨機抽選出一個元素。
+     *
+     * @return 傳回抽選出來的元素，若所有權重值都是0，將傳回null
+     */
+    public T pick() {
+        if (thresholds == null) {
+            return null;
+        }
+        final long rnd = engine.nextLong();
+        // 高32位元用來選擇欄位，低32位元用來決定是否使用別名
+        final int column = (int) (((rnd >>> 32) * array.length) >>> 32);
+        if ((rnd & 0xFFFFFFFFL) < thresholds[column]) {
+            return array[column];
+        }
+        return array[aliases[column]];
+    }
+
+    /**
+     * 取得抽選器的元素數量。
+     *
+     * @return 傳回元素數量
+     */
+    public int size() {
+        return array.length;
+    }
+}
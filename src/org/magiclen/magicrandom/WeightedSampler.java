@@ -0,0 +1,206 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 不放回的權重抽樣。使用Efraimidis–Spirakis的指數跳躍演算法(A-ExpJ)：每個元素的鍵值為u^(1/w)，鍵值最大的k個元素就是抽樣結果。只需要掃描一次權重值，用大小為k的最小堆積記錄目前鍵值最大的元素，並且直接跳過不可能進入堆積的元素，總共只需要O(k log(n/k))個亂數，時間複雜度為O(n + k log k log(n/k))。
+ * </p>
+ *
+ * <p>
+ * 鍵值以對數表示(ln(u) / w)，避免權重值很大或很小的時候發生下溢。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class WeightedSampler {
+
+    // -----類別方法-----
+    /**
+     * 把抽選區域的權重值平均分給區域內的元素。權重值的數量和元素數量相同時，直接傳回原本的權重值陣列。使用時應該取權重值的絕對值。
+     *
+     * @param arrayLength 傳入元素數量
+     * @param weights 傳入抽選區域的權重值
+     * @return 傳回每個元素的權重值
+     */
+    static double[] elementWeights(final int arrayLength, final double[] weights) {
+        final int weightsLength = weights.length;
+        if (weightsLength == arrayLength) {
+            return weights;
+        }
+        final double indexScale = arrayLength * 1.0 / weightsLength;
+        final double[] elementWeights = new double[arrayLength];
+        for (int i = 0; i < weightsLength; ++i) {
+            final double weight = Math.abs(weights[i]);
+            if (weight == 0) {
+                continue;
+            }
+            final int from = (int) Math.floor(i * indexScale);
+            final int to = (int) Math.floor((i + 1) * indexScale);
+            if (to <= from) {
+                // 權重值比元素多的時候，沒有元素的區域把權重值交給最接近的元素
+                elementWeights[Math.min(from, arrayLength - 1)] += weight;
+            } else {
+                final double share = weight / (to - from);
+                for (int j = from; j < to; ++j) {
+                    elementWeights[j] += share;
+                }
+            }
+        }
+        return elementWeights;
+    }
+
+    /**
+     * 依照權重值不放回地抽選出k個元素的索引。權重值為0的元素不會被抽中，權重值大於0的元素少於k個的時候，會傳回所有權重值大於0的元素。
+     *
+     * @param engine 傳入亂數引擎
+     * @param weights 傳入每個元素的權重值，負數將被取絕對值
+     * @param k 傳入抽選數量，不能為負數
+     * @return 傳回被抽中的索引，依照抽中的順序排列(和依序抽選、每次抽中後移除的順序有相同的分布)
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    static int[] sample(final RandomEngine engine, final double[] weights, final int k) {
+        final int n = weights.length;
+        final int capacity = Math.min(k, n);
+        // 以鍵值排序的最小堆積，heapKeys[0]是堆積中最小的鍵值
+        final double[] heapKeys = new double[capacity];
+        final int[] heapIndices = new int[capacity];
+        int heapSize = 0;
+        int i = 0;
+        for (; i < n && heapSize < capacity; ++i) {
+            final double weight = checkWeight(weights[i]);
+            if (weight > 0) {
+                siftUp(heapKeys, heapIndices, heapSize++, Math.log(nextOpenDouble(engine)) / weight, i);
+            }
+        }
+        if (heapSize == capacity && capacity > 0) {
+            // 指數跳躍：下一個進入堆積的元素出現在累積權重超過X的位置
+            double skip = Math.log(nextOpenDouble(engine)) / heapKeys[0];
+            for (; i < n; ++i) {
+                final double weight = checkWeight(weights[i]);
+                skip -= weight;
+                if (skip <= 0 && weight > 0) {
+                    // 新的鍵值必須大於堆積中最小的鍵值，在(t, 1)的範圍內取u，t = exp(minKey * weight)
+                    final double t = Math.exp(heapKeys[0] * weight);
+                    final double u = t + (1 - t) * nextOpenDouble(engine);
+                    final double key = Math.log(u) / weight;
+                    if (key > heapKeys[0]) {
+                        siftDown(heapKeys, heapIndices, heapSize, key, i);
+                    }
+                    skip = Math.log(nextOpenDouble(engine)) / heapKeys[0];
+                }
+            }
+        }
+        // 依照鍵值由大到小排列
+        final int[] result = new int[heapSize];
+        for (int size = heapSize; size > 0; --size) {
+            result[size - 1] = heapIndices[0];
+            siftDown(heapKeys, heapIndices, size - 1, heapKeys[size - 1], heapIndices[size - 1]);
+        }
+        return result;
+    }
+
+    /**
+     * 檢查權重值，並取得絕對值。
+     *
+     * @param weight 傳入權重值
+     * @return 傳回權重值的絕對值
+     * @throws IllegalArgumentException 權重值不是有限數值的時候將拋出例外
+     */
+    private static double checkWeight(final double weight) {
+        if (Double.isNaN(weight) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("The weights must be finite.");
+        }
+        return Math.abs(weight);
+    }
+
+    /**
+     * 取得一個在(0, 1)範圍內的雙倍精準浮點數，不會是0，因此可以取對數。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回雙倍精準浮點數
+     */
+    private static double nextOpenDouble(final RandomEngine engine) {
+        return ((engine.nextLong() >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    /**
+     * 把一個元素放到堆積的最後，再往上調整。
+     *
+     * @param keys 傳入堆積的鍵值
+     * @param indices 傳入堆積的索引
+     * @param position 傳入元素的位置，也就是目前堆積的大小
+     * @param key 傳入元素的鍵值
+     * @param index 傳入元素的索引
+     */
+    private static void siftUp(final double[] keys, final int[] indices, int position, final double key, final int index) {
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[position] = keys[parent];
+            indices[position] = indices[parent];
+            position = parent;
+        }
+        keys[position] = key;
+        indices[position] = index;
+    }
+
+    /**
+     * 用一個元素取代堆積的根，再往下調整。
+     *
+     * @param keys 傳入堆積的鍵值
+     * @param indices 傳入堆積的索引
+     * @param size 傳入堆積的大小
+     * @param key 傳入元素的鍵值
+     * @param index 傳入元素的索引
+     */
+    private static void siftDown(final double[] keys, final int[] indices, final int size, final double key, final int index) {
+        int position = 0;
+        while (true) {
+            int child = (position << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                ++child;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[position] = keys[child];
+            indices[position] = indices[child];
+            position = child;
+        }
+        if (size > 0) {
+            keys[position] = key;
+            indices[position] = index;
+        }
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private WeightedSampler() {
+
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 使用Ziggurat演算法產生標準常態分布和標準指數分布的亂數。密度函數下方的面積被切成數個面積相同的水平層，先用亂數的低位元選擇一層，再用高位元在層中取一個點，絕大部分的點都落在完全位於密度函數下方的矩形中，只需要一個64位元的亂數和一次乘法就能得到結果，不需要計算對數、開根號或三角函數。
+ * </p>
+ *
+ * <p>
+ * 常態分布使用Marsaglia和Tsang的128層參數，並使用Doornik的改良(ZIGNOR)來處理正負號和層的邊緣；指數分布使用256層。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class Ziggurat {
+
+    // -----類別常數-----
+    /**
+     * 常態分布的層數。
+     */
+    private static final int NORMAL_LAYERS = 128;
+    /**
+     * 常態分布最下層的矩形的右邊界，超過的部分為尾端。
+     */
+    private static final double NORMAL_R = 3.442619855899;
+    /**
+     * 常態分布每一層的面積。
+     */
+    private static final double NORMAL_V = 9.91256303526217e-3;
+    /**
+     * 指數分布的層數。
+     */
+    private static final int EXPONENTIAL_LAYERS = 256;
+    /**
+     * 指數分布最下層的矩形的右邊界，超過的部分為尾端。
+     */
+    private static final double EXPONENTIAL_R = 7.69711747013104972;
+    /**
+     * 指數分布每一層的面積。
+     */
+    private static final double EXPONENTIAL_V = 3.9496598225815571993e-3;
+
+    private static final double[] NORMAL_X = new double[NORMAL_LAYERS + 1];
+    private static final double[] NORMAL_RATIO = new double[NORMAL_LAYERS];
+    private static final double[] EXPONENTIAL_X = new double[EXPONENTIAL_LAYERS + 1];
+    private static final double[] EXPONENTIAL_RATIO = new double[EXPONENTIAL_LAYERS];
+
+    static {
+        // 第i層的寬度為x[i]，第0層是最下層的矩形加上尾端，寬度是把它的面積換算成矩形的寬度
+        double f = Math.exp(-0.5 * NORMAL_R * NORMAL_R);
+        NORMAL_X[0] = NORMAL_V / f;
+        NORMAL_X[1] = NORMAL_R;
+        for (int i = 2; i < NORMAL_LAYERS; ++i) {
+            NORMAL_X[i] = Math.sqrt(-2 * Math.log(NORMAL_V / NORMAL_X[i - 1] + f));
+            f = Math.exp(-0.5 * NORMAL_X[i] * NORMAL_X[i]);
+        }
+        NORMAL_X[NORMAL_LAYERS] = 0;
+        for (int i = 0; i < NORMAL_LAYERS; ++i) {
+            NORMAL_RATIO[i] = NORMAL_X[i + 1] / NORMAL_X[i];
+        }
+
+        f = Math.exp(-EXPONENTIAL_R);
+        EXPONENTIAL_X[0] = EXPONENTIAL_V / f;
+        EXPONENTIAL_X[1] = EXPONENTIAL_R;
+        for (int i = 2; i < EXPONENTIAL_LAYERS; ++i) {
+            EXPONENTIAL_X[i] = -Math.log(EXPONENTIAL_V / EXPONENTIAL_X[i - 1] + f);
+            f = Math.exp(-EXPONENTIAL_X[i]);
+        }
+        EXPONENTIAL_X[EXPONENTIAL_LAYERS] = 0;
+        for (int i = 0; i < EXPONENTIAL_LAYERS; ++i) {
+            EXPONENTIAL_RATIO[i] = EXPONENTIAL_X[i + 1] / EXPONENTIAL_X[i];
+        }
+    }
+
+    // -----類別方法-----
+    /**
+     * 取得一個標準常態分布(平均數為0，標準差為1)的亂數。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回亂數
+     */
+    static double normal(final RandomEngine engine) {
+        while (true) {
+            final long bits = engine.nextLong();
+            // 低7位元選擇層，高53位元是[-1, 1)範圍內的座標，兩者不重疊
+            final int i = (int) bits & (NORMAL_LAYERS - 1);
+            final double u = (bits >>> 11) * 0x1.0p-52 - 1;
+            if (Math.abs(u) < NORMAL_RATIO[i]) {
+                return u * NORMAL_X[i];
+            }
+            if (i == 0) {
+                return normalTail(engine, u < 0);
+            }
+            final double x = u * NORMAL_X[i];
+            final double f0 = Math.exp(-0.5 * (NORMAL_X[i] * NORMAL_X[i] - x * x));
+            final double f1 = Math.exp(-0.5 * (NORMAL_X[i + 1] * NORMAL_X[i + 1] - x * x));
+            if (f1 + engine.nextDouble() * (f0 - f1) < 1) {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * 取得一個常態分布在尾端(絕對值大於R)的亂數。使用Marsaglia的尾端演算法。
+     *
+     * @param engine 傳入亂數引擎
+     * @param negative 傳入是否為負數
+     * @return 傳回亂數
+     */
+    private static double normalTail(final RandomEngine engine, final boolean negative) {
+        double x, y;
+        do {
+            x = Math.log(nextOpenDouble(engine)) / NORMAL_R;
+            y = Math.log(nextOpenDouble(engine));
+        } while (-2 * y < x * x);
+        return negative ? x - NORMAL_R : NORMAL_R - x;
+    }
+
+    /**
+     * 取得一個標準指數分布(平均數為1)的亂數。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回亂數
+     */
+    static double exponential(final RandomEngine engine) {
+        double tail = 0;
+        while (true) {
+            final long bits = engine.nextLong();
+            final int i = (int) bits & (EXPONENTIAL_LAYERS - 1);
+            final double u = (bits >>> 11) * 0x1.0p-53;
+            if (u < EXPONENTIAL_RATIO[i]) {
+                return tail + u * EXPONENTIAL_X[i];
+            }
+            if (i == 0) {
+                // 指數分布沒有記憶性，尾端的部分就是R加上另一個指數分布的亂數
+                tail += EXPONENTIAL_R;
+                continue;
+            }
+            final double x = u * EXPONENTIAL_X[i];
+            final double f0 = Math.exp(-EXPONENTIAL_X[i]);
+            final double f1 = Math.exp(-EXPONENTIAL_X[i + 1]);
+            if (f0 + engine.nextDouble() * (f1 - f0) < Math.exp(-x)) {
+                return tail + x;
+            }
+        }
+    }
+
+    /**
+     * 取得一個在(0, 1)範圍內的雙倍精準浮點數，不會是0，因此可以取對數。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回雙倍精準浮點數
+     */
+    private static double nextOpenDouble(final RandomEngine engine) {
+        return ((engine.nextLong() >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private Ziggurat() {
+
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import org.magiclen.magicrandom.engine.RandomEngine;
+
+/**
+ * <p>
+ * 產生Zipf分布的亂數。產生1~n的整數，k被抽中的機率和1/k^s成正比，適合用來模擬熱門程度呈長尾分布的鍵值。
+ * </p>
+ *
+ * <p>
+ * 使用Hörmann和Derflinger的拒絕逆變換法(rejection-inversion)：以連續函數h(x) = 1/x^s的積分的反函數取樣，再對少數落在邊緣的點做一次拒絕測試。由指數s和元素數量n決定的積分邊界與接受門檻會在建構時計算好，批次產生亂數時可以重複使用；每個亂數的期望時間複雜度都是O(1)，和n的大小無關，也不需要建立大小為n的表格。
+ * </p>
+ *
+ * @author Magic Len
+ */
+final class ZipfSampler {
+
+    // -----物件常數-----
+    private final int numberOfElements;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+
+    // -----建構子-----
+    /**
+     * 建構子。
+     *
+     * @param numberOfElements 傳入元素數量n，必須大於0
+     * @param exponent 傳入指數s，必須是有限的非負數，0表示均勻分布
+     * @throws IllegalArgumentException 參數不合法的時候將拋出例外
+     */
+    ZipfSampler(final int numberOfElements, final double exponent) {
+        if (numberOfElements <= 0) {
+            throw new IllegalArgumentException("The number of elements must be positive.");
+        }
+        if (!(exponent >= 0) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException("The exponent must be a finite non-negative number.");
+        }
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+        hIntegralX1 = hIntegral(1.5) - 1;
+        hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+        s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    // -----物件方法-----
+    /**
+     * 判斷這個抽樣器是否使用指定的元素數量和指數，用來重複使用已經計算好的常數。
+     *
+     * @param numberOfElements 傳入元素數量n
+     * @param exponent 傳入指數s
+     * @return 傳回是否使用相同的元素數量和指數
+     */
+    boolean hasParameters(final int numberOfElements, final double exponent) {
+        return this.numberOfElements == numberOfElements && Double.compare(this.exponent, exponent) == 0;
+    }
+
+    /**
+     * 取得一個Zipf分布的亂數。
+     *
+     * @param engine 傳入亂數引擎
+     * @return 傳回1~n的整數
+     */
+    int sample(final RandomEngine engine) {
+        while (true) {
+            final double u = hIntegralNumberOfElements + engine.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            final double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+            // 大部分的點都會被第一個條件接受，不需要計算第二個條件
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * 計算h(x) = 1/x^s的積分H(x) = (x^(1 - s) - 1) / (1 - s)。s等於1時為ln(x)。
+     *
+     * @param x 傳入x
+     * @return 傳回H(x)
+     */
+    private double hIntegral(final double x) {
+        final double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+
+    /**
+     * 計算h(x) = 1/x^s。
+     *
+     * @param x 傳入x
+     * @return 傳回h(x)
+     */
+    private double h(final double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    /**
+     * 計算H(x)的反函數。
+     *
+     * @param x 傳入x
+     * @return 傳回H^(-1)(x)
+     */
+    private double hIntegralInverse(final double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            // 只會因為浮點數誤差而發生
+            t = -1;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /**
+     * 計算ln(1 + x) / x，x接近0的時候使用泰勒展開式。
+     *
+     * @param x 傳入x
+     * @return 傳回ln(1 + x) / x
+     */
+    private static double helper1(final double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    /**
+     * 計算(e^x - 1) / x，x接近0的時候使用泰勒展開式。
+     *
+     * @param x 傳入x
+     * @return 傳回(e^x - 1) / x
+     */
+    private static double helper2(final double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>
+ * 有緩衝區的亂數引擎，適合包裝SecureRandomEngine這類每次呼叫都有固定開銷或是會競爭鎖的來源。
+ * </p>
+ *
+ * <p>
+ * 每個執行緒各自擁有兩塊區塊，一塊用來取值，另一塊是備用區塊。目前區塊剩下的亂數數量降到低水位時，會在背景執行緒中用來源引擎的nextLongs方法一次填滿備用區塊；目前區塊用完時直接和已經填好的備用區塊交換，所以取值時只需要讀取陣列，不需要呼叫來源引擎。如果備用區塊還沒填好，才會在呼叫的執行緒中直接填滿目前區塊。
+ * </p>
+ *
+ * <p>
+ * 這個引擎是執行緒安全的。來源引擎會同時被背景執行緒和呼叫的執行緒使用，所以也必須是執行緒安全的。每個亂數只會被取出一次，但是不同執行緒取出的亂數的先後順序和直接使用來源引擎時不同。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class BufferedRandomEngine implements RandomEngine {
+
+    // -----類別常數-----
+    /**
+     * 預設的區塊大小。
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+    /**
+     * 預設的低水位。
+     */
+    public static final int DEFAULT_LOW_WATER_MARK = 512;
+
+    private static final int IDLE = 0;
+    private static final int FILLING = 1;
+    private static final int READY = 2;
+
+    // -----物件常數-----
+    private final RandomEngine source;
+    private final int blockSize;
+    private final int lowWaterMark;
+    private final int refillPosition;
+    private final Executor executor;
+    private final ThreadLocal<Buffer> buffers;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用預設的區塊大小和低水位，並使用共用的背景執行緒補充亂數。
+     *
+     * @param source 傳入來源引擎，必須是執行緒安全的
+     */
+    public BufferedRandomEngine(final RandomEngine source) {
+        this(source, DEFAULT_BLOCK_SIZE, DEFAULT_LOW_WATER_MARK);
+    }
+
+    /**
+     * 建構子，使用共用的背景執行緒補充亂數。
+     *
+     * @param source 傳入來源引擎，必須是執行緒安全的
+     * @param blockSize 傳入每個區塊可以存放的亂數數量
+     * @param lowWaterMark 傳入低水位，目前區塊剩下的亂數數量等於這個值的時候開始補充備用區塊，必須在1~blockSize之間
+     * @throws IllegalArgumentException 參數不合法的時候將拋出例外
+     */
+    public BufferedRandomEngine(final RandomEngine source, final int blockSize, final int lowWaterMark) {
+        this(source, blockSize, lowWaterMark, DefaultExecutorHolder.EXECUTOR);
+    }
+
+    /**
+     * 建構子。
+     *
+     * @param source 傳入來源引擎，必須是執行緒安全的
+     * @param blockSize 傳入每個區塊可以存放的亂數數量
+     * @param lowWaterMark 傳入低水位，目前區塊剩下的亂數數量等於這個值的時候開始補充備用區塊，必須在1~blockSize之間
+     * @param executor 傳入用來補充亂數的執行器
+     * @throws IllegalArgumentException 參數不合法的時候將拋出例外
+     */
+    public BufferedRandomEngine(final RandomEngine source, final int blockSize, final int lowWaterMark, final Executor executor) {
+        if (source == null) {
+            throw new NullPointerException("The source engine can't be null.");
+        }
+        if (executor == null) {
+            throw new NullPointerException("The executor can't be null.");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size must be positive.");
+        }
+        if (lowWaterMark <= 0 || lowWaterMark > blockSize) {
+            throw new IllegalArgumentException("The low-water mark must be between 1 and the block size.");
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+        this.lowWaterMark = lowWaterMark;
+        this.refillPosition = blockSize - lowWaterMark;
+        this.executor = executor;
+        this.buffers = ThreadLocal.withInitial(() -> new Buffer(source, blockSize, executor));
+    }
+
+    // -----物件方法-----
+    @Override
+    public long nextLong() {
+        final Buffer buffer = buffers.get();
+        int position = buffer.position;
+        if (position == blockSize) {
+            buffer.next();
+            position = 0;
+        }
+        if (position == refillPosition && buffer.state == IDLE) {
+            buffer.requestRefill();
+        }
+        buffer.position = position + 1;
+        return buffer.block[position];
+    }
+
+    @Override
+    public void nextLongs(final long[] dest, final int offset, final int length) {
+        final Buffer buffer = buffers.get();
+        int i = offset;
+        final int end = offset + length;
+        while (i < end) {
+            int position = buffer.position;
+            if (position == blockSize) {
+                buffer.next();
+                position = 0;
+            }
+            final int n = Math.min(end - i, blockSize - position);
+            if (position <= refillPosition && position + n > refillPosition && buffer.state == IDLE) {
+                buffer.requestRefill();
+            }
+            System.arraycopy(buffer.block, position, dest, i, n);
+            buffer.position = position + n;
+            i += n;
+        }
+    }
+
+    /**
+     * 取得來源引擎。
+     *
+     * @return 傳回來源引擎
+     */
+    public RandomEngine getSource() {
+        return source;
+    }
+
+    /**
+     * 取得區塊大小。
+     *
+     * @return 傳回每個區塊可以存放的亂數數量
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * 取得低水位。
+     *
+     * @return 傳回低水位
+     */
+    public int getLowWaterMark() {
+        return lowWaterMark;
+    }
+
+    /**
+     * 一個執行緒的緩衝區。block和position只會被擁有它的執行緒使用；spare在state為FILLING的時候只會被背景執行緒使用，背景執行緒填滿後把state設為READY，擁有它的執行緒看到READY之後才能交換。不參考外部的引擎物件，引擎不再被使用時，執行緒中的緩衝區也可以被回收。
+     */
+    private static final class Buffer {
+
+        private final RandomEngine source;
+        private final int blockSize;
+        private final Executor executor;
+        long[] block;
+        int position;
+        long[] spare;
+        volatile int state;
+
+        Buffer(final RandomEngine source, final int blockSize, final Executor executor) {
+            this.source = source;
+            this.blockSize = blockSize;
+            this.executor = executor;
+            block = new long[blockSize];
+            spare = new long[blockSize];
+            source.nextLongs(block, 0, blockSize);
+        }
+
+        /**
+         * 目前區塊用完時，換成備用區塊，或是直接填滿目前區塊。
+         */
+        void next() {
+            if (state == READY) {
+                final long[] temp = block;
+                block = spare;
+                spare = temp;
+                state = IDLE;
+            } else {
+                source.nextLongs(block, 0, blockSize);
+            }
+            position = 0;
+        }
+
+        /**
+         * 請背景執行緒填滿備用區塊。
+         */
+        void requestRefill() {
+            state = FILLING;
+            try {
+                executor.execute(this::refill);
+            } catch (final RejectedExecutionException ex) {
+                state = IDLE;
+            }
+        }
+
+        /**
+         * 在背景執行緒中填滿備用區塊。
+         */
+        private void refill() {
+            try {
+                source.nextLongs(spare, 0, blockSize);
+                state = READY;
+            } catch (final RuntimeException ex) {
+                // 讓擁有這個緩衝區的執行緒之後自己填滿區塊，例外會在那時拋出
+                state = IDLE;
+            }
+        }
+    }
+
+    /**
+     * 延遲建立共用的背景執行緒。
+     */
+    private static final class DefaultExecutorHolder {
+
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "MagicRandom-BufferedRandomEngine-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
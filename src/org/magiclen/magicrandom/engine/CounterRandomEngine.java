@@ -0,0 +1,113 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+/**
+ * <p>
+ * 以計數器為基礎的亂數引擎。第i個亂數是把種子和i經過64位元混合函數計算出來的，不依賴前面的亂數，所以可以在O(1)的時間內直接計算任意位置的值，也可以任意移動目前的位置。
+ * </p>
+ *
+ * <p>
+ * valueAt方法不會改變引擎的狀態，可以被多個執行緒同時呼叫；nextLong方法會移動目前的位置，因此不是執行緒安全的。
+ * </p>
+ *
+ * @author Magic Len
+ */
+public final class CounterRandomEngine implements RandomEngine {
+
+    // -----物件常數-----
+    private final long seed;
+    private final long gamma;
+    private final long streamSeed;
+
+    // -----物件變數-----
+    private long position;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用隨機的種子。
+     */
+    public CounterRandomEngine() {
+        this(SplitMix64.nextSeed());
+    }
+
+    /**
+     * 建構子，使用指定的種子。相同的種子會產生相同的亂數序列。
+     *
+     * @param seed 傳入種子
+     */
+    public CounterRandomEngine(final long seed) {
+        this.seed = SplitMix64.mix(seed);
+        // 遞增量必須是奇數，而且0和1的位元轉換要夠多，避免混合效果不佳
+        long z = SplitMix64.mix(seed + SplitMix64.GOLDEN_GAMMA) | 1L;
+        if (Long.bitCount(z ^ (z >>> 1)) < 24) {
+            z ^= 0xAAAAAAAAAAAAAAAAL;
+        }
+        this.gamma = z;
+        this.streamSeed = SplitMix64.mix(seed - SplitMix64.GOLDEN_GAMMA);
+    }
+
+    // -----物件方法-----
+    /**
+     * 計算第0號子序列中第index個位置的亂數。和呼叫setPosition(index)之後再呼叫nextLong方法的結果相同。
+     *
+     * @param index 傳入位置
+     * @return 傳回64位元的亂數
+     */
+    public long valueAt(final long index) {
+        return SplitMix64.mix(seed + index * gamma);
+    }
+
+    /**
+     * 計算指定子序列中第index個位置的亂數。不同編號的子序列互相獨立，第0號子序列就是nextLong方法使用的序列。
+     *
+     * @param stream 傳入子序列的編號
+     * @param index 傳入位置
+     * @return 傳回64位元的亂數
+     */
+    public long valueAt(final long stream, final long index) {
+        final long value = valueAt(index);
+        if (stream == 0) {
+            return value;
+        }
+        return SplitMix64.mix(value ^ SplitMix64.mix(streamSeed + stream * SplitMix64.GOLDEN_GAMMA));
+    }
+
+    /**
+     * 取得目前的位置，也就是下一次呼叫nextLong方法時使用的位置。
+     *
+     * @return 傳回目前的位置
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * 設定目前的位置。
+     *
+     * @param position 傳入位置
+     */
+    public void setPosition(final long position) {
+        this.position = position;
+    }
+
+    @Override
+    public long nextLong() {
+        return valueAt(position++);
+    }
+}
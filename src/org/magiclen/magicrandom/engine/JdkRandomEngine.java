@@ -0,0 +1,81 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+import java.util.Random;
+
+/**
+ * 使用java.util.Random的亂數引擎。行為和Math.random()相同，是執行緒安全的，但多個執行緒共用時會競爭同一個種子。
+ *
+ * @author Magic Len
+ */
+public final class JdkRandomEngine implements RandomEngine {
+
+    // -----物件常數-----
+    private final Random random;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用隨機的種子。
+     */
+    public JdkRandomEngine() {
+        this(new Random());
+    }
+
+    /**
+     * 建構子，使用指定的種子。相同的種子會產生相同的亂數序列。
+     *
+     * @param seed 傳入種子
+     */
+    public JdkRandomEngine(final long seed) {
+        this(new Random(seed));
+    }
+
+    /**
+     * 建構子，使用指定的Random物件。
+     *
+     * @param random 傳入Random物件
+     */
+    public JdkRandomEngine(final Random random) {
+        if (random == null) {
+            throw new NullPointerException("The random object can't be null.");
+        }
+        this.random = random;
+    }
+
+    // -----物件方法-----
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return random.nextInt();
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public float nextFloat() {
+        return random.nextFloat();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+/**
+ * 亂數引擎。MagicRandom所有的亂數都是從引擎取得的64位元亂數轉換而來。
+ *
+ * @author Magic Len
+ */
+public interface RandomEngine {
+
+    /**
+     * 取得下一個64位元的亂數，每個位元都應該是均勻分布的。
+     *
+     * @return 傳回64位元的亂數
+     */
+    long nextLong();
+
+    /**
+     * 取得下一個32位元的亂數。
+     *
+     * @return 傳回32位元的亂數
+     */
+    default int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    /**
+     * 取得下一個在[0, 1)範圍內的雙倍精準浮點數。
+     *
+     * @return 傳回雙倍精準浮點數
+     */
+    default double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * 取得下一個在[0, 1)範圍內的單倍精準浮點數。
+     *
+     * @return 傳回單倍精準浮點數
+     */
+    default float nextFloat() {
+        return (nextInt() >>> 8) * 0x1.0p-24f;
+    }
+
+    /**
+     * 將64位元的亂數寫入陣列中的一段範圍。結果和連續呼叫nextLong方法相同，可以一次產生多個亂數的引擎應該覆寫這個方法。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     */
+    default void nextLongs(final long[] dest, final int offset, final int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = nextLong();
+        }
+    }
+
+    /**
+     * 將32位元的亂數寫入陣列中的一段範圍。結果和連續呼叫nextInt方法相同。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     */
+    default void nextInts(final int[] dest, final int offset, final int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = nextInt();
+        }
+    }
+
+    /**
+     * 將[0, 1)範圍內的雙倍精準浮點數寫入陣列中的一段範圍。結果和連續呼叫nextDouble方法相同。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     */
+    default void nextDoubles(final double[] dest, final int offset, final int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = nextDouble();
+        }
+    }
+
+    /**
+     * 將[0, 1)範圍內的單倍精準浮點數寫入陣列中的一段範圍。結果和連續呼叫nextFloat方法相同。
+     *
+     * @param dest 傳入要存放結果的陣列
+     * @param offset 傳入開始存放的索引位置
+     * @param length 傳入要存放的數量
+     */
+    default void nextFloats(final float[] dest, final int offset, final int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            dest[i] = nextFloat();
+        }
+    }
+}
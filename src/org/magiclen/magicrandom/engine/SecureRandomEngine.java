@@ -0,0 +1,62 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+import java.security.SecureRandom;
+
+/**
+ * 使用SecureRandom的亂數引擎。適合用在密碼學相關的用途，是執行緒安全的，但速度較慢。
+ *
+ * @author Magic Len
+ */
+public final class SecureRandomEngine implements RandomEngine {
+
+    // -----物件常數-----
+    private final SecureRandom random;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用預設的SecureRandom演算法。
+     */
+    public SecureRandomEngine() {
+        this(new SecureRandom());
+    }
+
+    /**
+     * 建構子，使用指定的SecureRandom物件。
+     *
+     * @param random 傳入SecureRandom物件
+     */
+    public SecureRandomEngine(final SecureRandom random) {
+        if (random == null) {
+            throw new NullPointerException("The random object can't be null.");
+        }
+        this.random = random;
+    }
+
+    // -----物件方法-----
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return random.nextInt();
+    }
+}
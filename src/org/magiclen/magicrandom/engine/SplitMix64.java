@@ -0,0 +1,70 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SplitMix64的混合函數，用來展開種子。
+ *
+ * @author Magic Len
+ */
+final class SplitMix64 {
+
+    // -----類別常數-----
+    /**
+     * 黃金比例常數，用來遞增狀態。
+     */
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // -----類別變數-----
+    /**
+     * 用來產生預設種子的狀態。
+     */
+    private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong(mix(System.currentTimeMillis()) ^ System.nanoTime());
+
+    // -----類別方法-----
+    /**
+     * 混合64位元的數值。
+     *
+     * @param z 傳入要混合的數值
+     * @return 傳回混合後的數值
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 產生一個預設的種子，每次呼叫都會得到不同的種子。
+     *
+     * @return 傳回種子
+     */
+    static long nextSeed() {
+        return mix(SEED_UNIQUIFIER.addAndGet(GOLDEN_GAMMA) ^ System.nanoTime());
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private SplitMix64() {
+
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * 使用SplittableRandom的亂數引擎。不是執行緒安全的，但可以分割出互相獨立的引擎給其他執行緒使用。
+ *
+ * @author Magic Len
+ */
+public final class SplittableRandomEngine implements RandomEngine {
+
+    // -----物件常數-----
+    private final SplittableRandom random;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用隨機的種子。
+     */
+    public SplittableRandomEngine() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * 建構子，使用指定的種子。相同的種子會產生相同的亂數序列。
+     *
+     * @param seed 傳入種子
+     */
+    public SplittableRandomEngine(final long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * 建構子，使用指定的SplittableRandom物件。
+     *
+     * @param random 傳入SplittableRandom物件
+     */
+    public SplittableRandomEngine(final SplittableRandom random) {
+        if (random == null) {
+            throw new NullPointerException("The random object can't be null.");
+        }
+        this.random = random;
+    }
+
+    // -----物件方法-----
+    /**
+     * 分割出一個新的引擎，新引擎與這個引擎的亂數序列互相獨立。
+     *
+     * @return 傳回新的引擎
+     */
+    public SplittableRandomEngine split() {
+        return new SplittableRandomEngine(random.split());
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return random.nextInt();
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+}
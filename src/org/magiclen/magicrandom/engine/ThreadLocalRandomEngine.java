@@ -0,0 +1,65 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 使用ThreadLocalRandom的亂數引擎。每個執行緒都有各自的狀態，因此是執行緒安全的，也不會有競爭。
+ *
+ * @author Magic Len
+ */
+public final class ThreadLocalRandomEngine implements RandomEngine {
+
+    // -----類別常數-----
+    private static final ThreadLocalRandomEngine INSTANCE = new ThreadLocalRandomEngine();
+
+    // -----類別方法-----
+    /**
+     * 取得ThreadLocalRandomEngine的實體。
+     *
+     * @return 傳回ThreadLocalRandomEngine的實體
+     */
+    public static ThreadLocalRandomEngine getInstance() {
+        return INSTANCE;
+    }
+
+    // -----物件方法-----
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return ThreadLocalRandom.current().nextInt();
+    }
+
+    @Override
+    public double nextDouble() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    // -----建構子-----
+    /**
+     * 私有的建構子，將無法被實體化。
+     */
+    private ThreadLocalRandomEngine() {
+
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom.engine;
+
+/**
+ * xoshiro256**亂數引擎。速度快、週期為2^256 - 1，但不是執行緒安全的，每個執行緒應該使用各自的引擎。引擎可以跳躍(jump)到2^128或2^192步之後的狀態，用來產生互不重疊的子序列。批次產生亂數的方法會把狀態放在區域變數中，比逐一呼叫nextLong方法快。
+ *
+ * @author Magic Len
+ */
+public final class Xoshiro256StarStarEngine implements RandomEngine {
+
+    // -----類別常數-----
+    /**
+     * 跳躍2^128步的多項式。
+     */
+    private static final long[] JUMP = {0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL};
+    /**
+     * 跳躍2^192步的多項式。
+     */
+    private static final long[] LONG_JUMP = {0x76E15D3EFEFDCBBFL, 0xC5004E441C522FB3L, 0x77710069854EE241L, 0x39109BB02ACBE635L};
+
+    // -----物件變數-----
+    private long s0, s1, s2, s3;
+
+    // -----建構子-----
+    /**
+     * 建構子，使用隨機的種子。
+     */
+    public Xoshiro256StarStarEngine() {
+        this(SplitMix64.nextSeed());
+    }
+
+    /**
+     * 建構子，使用指定的種子。相同的種子會產生相同的亂數序列。
+     *
+     * @param seed 傳入種子
+     */
+    public Xoshiro256StarStarEngine(final long seed) {
+        long z = seed;
+        s0 = SplitMix64.mix(z += SplitMix64.GOLDEN_GAMMA);
+        s1 = SplitMix64.mix(z += SplitMix64.GOLDEN_GAMMA);
+        s2 = SplitMix64.mix(z += SplitMix64.GOLDEN_GAMMA);
+        s3 = SplitMix64.mix(z + SplitMix64.GOLDEN_GAMMA);
+    }
+
+    /**
+     * 複製建構子。
+     *
+     * @param engine 傳入要複製狀態的引擎
+     */
+    private Xoshiro256StarStarEngine(final Xoshiro256StarStarEngine engine) {
+        s0 = engine.s0;
+        s1 = engine.s1;
+        s2 = engine.s2;
+        s3 = engine.s3;
+    }
+
+    // -----物件方法-----
+    /**
+     * 複製一個狀態相同的引擎。
+     *
+     * @return 傳回新的引擎
+     */
+    public Xoshiro256StarStarEngine copy() {
+        return new Xoshiro256StarStarEngine(this);
+    }
+
+    /**
+     * 跳躍到2^128步之後的狀態。相當於呼叫2^128次nextLong方法，可以用來產生2^128個互不重疊的子序列。
+     */
+    public void jump() {
+        jump(JUMP);
+    }
+
+    /**
+     * 跳躍到2^192步之後的狀態。相當於呼叫2^192次nextLong方法，可以用來產生2^64個互不重疊的子序列，每個子序列再用jump方法分割。
+     */
+    public void longJump() {
+        jump(LONG_JUMP);
+    }
+
+    /**
+     * 依照跳躍多項式改變狀態。
+     *
+     * @param polynomial 傳入跳躍多項式
+     */
+    private void jump(final long[] polynomial) {
+        long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+        for (final long word : polynomial) {
+            for (int b = 0; b < 64; ++b) {
+                if ((word & (1L << b)) != 0) {
+                    t0 ^= s0;
+                    t1 ^= s1;
+                    t2 ^= s2;
+                    t3 ^= s3;
+                }
+                nextLong();
+            }
+        }
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+
+    @Override
+    public long nextLong() {
+        final long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        final long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public void nextLongs(final long[] dest, final int offset, final int length) {
+        // 狀態放在區域變數中，整個迴圈都不需要讀寫欄位
+        long t0 = s0, t1 = s1, t2 = s2, t3 = s3;
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final long result = Long.rotateLeft(t1 * 5, 7) * 9;
+            final long t = t1 << 17;
+            t2 ^= t0;
+            t3 ^= t1;
+            t1 ^= t2;
+            t0 ^= t3;
+            t2 ^= t;
+            t3 = Long.rotateLeft(t3, 45);
+            dest[i] = result;
+        }
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+
+    @Override
+    public void nextInts(final int[] dest, final int offset, final int length) {
+        // 狀態放在區域變數中，整個迴圈都不需要讀寫欄位
+        long t0 = s0, t1 = s1, t2 = s2, t3 = s3;
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final long result = Long.rotateLeft(t1 * 5, 7) * 9;
+            final long t = t1 << 17;
+            t2 ^= t0;
+            t3 ^= t1;
+            t1 ^= t2;
+            t0 ^= t3;
+            t2 ^= t;
+            t3 = Long.rotateLeft(t3, 45);
+            dest[i] = (int) (result >>> 32);
+        }
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+
+    @Override
+    public void nextDoubles(final double[] dest, final int offset, final int length) {
+        // 狀態放在區域變數中，整個迴圈都不需要讀寫欄位
+        long t0 = s0, t1 = s1, t2 = s2, t3 = s3;
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final long result = Long.rotateLeft(t1 * 5, 7) * 9;
+            final long t = t1 << 17;
+            t2 ^= t0;
+            t3 ^= t1;
+            t1 ^= t2;
+            t0 ^= t3;
+            t2 ^= t;
+            t3 = Long.rotateLeft(t3, 45);
+            dest[i] = (result >>> 11) * 0x1.0p-53;
+        }
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+
+    @Override
+    public void nextFloats(final float[] dest, final int offset, final int length) {
+        // 狀態放在區域變數中，整個迴圈都不需要讀寫欄位
+        long t0 = s0, t1 = s1, t2 = s2, t3 = s3;
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final long result = Long.rotateLeft(t1 * 5, 7) * 9;
+            final long t = t1 << 17;
+            t2 ^= t0;
+            t3 ^= t1;
+            t1 ^= t2;
+            t0 ^= t3;
+            t2 ^= t;
+            t3 = Long.rotateLeft(t3, 45);
+            dest[i] = (int) (result >>> 40) * 0x1.0p-24f;
+        }
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * 測試DynamicWeightedPicker。
+ *
+ * @author Magic Len
+ */
+public class DynamicWeightedPickerTest {
+
+    /**
+     * 沒有權重值時，所有元素的權重相同，更新一個元素的權重值之後，其他元素仍然可以被抽中。
+     */
+    @Test
+    public void emptyWeightsAreUniform() {
+        final Integer[] array = {0, 1, 2, 3};
+        final DynamicWeightedPicker<Integer> picker = new DynamicWeightedPicker<>(new SplittableRandomEngine(5L), array);
+        assertEquals(1.0, picker.getTotalWeight());
+        picker.updateWeight(3, 0.0625);
+        final int[] counts = new int[array.length];
+        for (int i = 0; i < 32500; ++i) {
+            ++counts[picker.pick()];
+        }
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(counts[i] > 9000 && counts[i] < 11000, "count = " + counts[i]);
+        }
+        assertTrue(counts[3] > 2000 && counts[3] < 3000, "count = " + counts[3]);
+    }
+
+    /**
+     * 權重值總和溢位時要拋出例外，並且維持原本的狀態。
+     */
+    @Test
+    public void overflowingUpdateIsRejected() {
+        final DynamicWeightedPicker<String> picker = new DynamicWeightedPicker<>(new SplittableRandomEngine(7L), new String[]{"a", "b", "c"}, 1, 1, 1);
+        picker.updateWeight(0, 1e308);
+        assertThrows(IllegalArgumentException.class, () -> picker.updateWeight(1, 1e308));
+        assertEquals(1.0, picker.getWeight(1));
+        assertTrue(Double.isFinite(picker.getTotalWeight()));
+        for (int i = 0; i < 1000; ++i) {
+            assertTrue(picker.pickIndex() >= 0);
+        }
+    }
+}
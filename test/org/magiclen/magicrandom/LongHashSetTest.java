@@ -0,0 +1,55 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 測試LongHashSet。
+ *
+ * @author Magic Len
+ */
+public class LongHashSetTest {
+
+    /**
+     * 元素數量超過上限時要在配置表格之前拋出例外，不能因為容量溢位而建立過小的表格。
+     */
+    @Test
+    public void tooLargeSizeIsRejected() {
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> new LongHashSet(LongHashSet.MAX_SIZE + 1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> new LongHashSet((1 << 29) * 3));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> new LongHashSet(Integer.MAX_VALUE));
+    }
+
+    /**
+     * 一般的數量可以放滿而不會重複。
+     */
+    @Test
+    public void addsUpToExpectedSize() {
+        final LongHashSet set = new LongHashSet(1000);
+        for (long i = 0; i < 1000; ++i) {
+            assertTrue(set.add(i * 0x100000000L));
+        }
+        assertFalse(set.add(0));
+        assertFalse(set.add(999 * 0x100000000L));
+    }
+}
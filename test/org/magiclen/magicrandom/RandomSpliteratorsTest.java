@@ -0,0 +1,56 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.PrimitiveIterator;
+import org.junit.jupiter.api.Test;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * 測試RandomSpliterators。
+ *
+ * @author Magic Len
+ */
+public class RandomSpliteratorsTest {
+
+    /**
+     * 相同的種子，逐一取得和一次取得全部的整數要得到相同的序列。
+     */
+    @Test
+    public void intsIteratorMatchesForEach() {
+        assertIntsIteratorMatchesForEach(1, 6);
+        assertIntsIteratorMatchesForEach(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static void assertIntsIteratorMatchesForEach(final int a, final int b) {
+        final int count = 1000;
+        final PrimitiveIterator.OfInt iterator = new MagicRandomGenerator(new SplittableRandomEngine(99L)).ints(count, a, b).iterator();
+        final int[] expected = new int[count];
+        for (int i = 0; i < count; ++i) {
+            expected[i] = iterator.nextInt();
+        }
+        final int[] actual = new int[count];
+        final int[] position = new int[1];
+        new MagicRandomGenerator(new SplittableRandomEngine(99L)).ints(count, a, b).forEach(value -> actual[position[0]++] = value);
+        for (int i = 0; i < count; ++i) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+}
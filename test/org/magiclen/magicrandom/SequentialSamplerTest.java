@@ -0,0 +1,74 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.PrimitiveIterator;
+import org.junit.jupiter.api.Test;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * 測試SequentialSampler。
+ *
+ * @author Magic Len
+ */
+public class SequentialSamplerTest {
+
+    /**
+     * 範圍大於2^53時，第一個值的低10位元要均勻分布，不能只產生ulp的倍數。
+     */
+    @Test
+    public void lowBitsAreUniformOnWideRange() {
+        final MagicRandomGenerator generator = new MagicRandomGenerator(new SplittableRandomEngine(20261016L));
+        final int runs = 102400;
+        final long[] histogram = new long[1024];
+        for (int i = 0; i < runs; ++i) {
+            final PrimitiveIterator.OfLong iterator = generator.sortedLongsIterator(3, 0, Long.MAX_VALUE);
+            ++histogram[(int) (iterator.nextLong() & 1023)];
+        }
+        final double expected = runs / 1024.0;
+        double chiSquare = 0;
+        for (final long count : histogram) {
+            final double difference = count - expected;
+            chiSquare += difference * difference / expected;
+        }
+        // 自由度1023，顯著水準約0.0001的臨界值
+        assertTrue(chiSquare < 1200, "chi-square = " + chiSquare);
+        assertTrue(histogram[0] < expected * 2, "low 10 bits are zero in " + histogram[0] + " runs");
+    }
+
+    /**
+     * 整個2^64的範圍也要依照遞增的順序產生指定數量的值。
+     */
+    @Test
+    public void fullRangeIsAscending() {
+        final MagicRandomGenerator generator = new MagicRandomGenerator(new SplittableRandomEngine(1L));
+        final PrimitiveIterator.OfLong iterator = generator.sortedLongsIterator(10000, Long.MIN_VALUE, Long.MAX_VALUE);
+        long previous = iterator.nextLong();
+        int count = 1;
+        while (iterator.hasNext()) {
+            final long value = iterator.nextLong();
+            assertTrue(value > previous);
+            previous = value;
+            ++count;
+        }
+        assertEquals(10000, count);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * 測試UniqueSampler。
+ *
+ * @author Magic Len
+ */
+public class UniqueSamplerTest {
+
+    /**
+     * 不重複的短整數要落在範圍內、不能重複，每個位置上的值也要均勻分布。
+     */
+    @Test
+    public void uniqueShortsAreDistinctAndUniform() {
+        final MagicRandomGenerator generator = new MagicRandomGenerator(new SplittableRandomEngine(11L));
+        final short[] dest = new short[12];
+        final int[] firstCounts = new int[10];
+        for (int run = 0; run < 20000; ++run) {
+            generator.fill(dest, 1, 10, (short) -5, (short) 4, true);
+            final boolean[] seen = new boolean[10];
+            for (int i = 1; i <= 10; ++i) {
+                final int value = dest[i] + 5;
+                assertTrue(value >= 0 && value < 10 && !seen[value]);
+                seen[value] = true;
+            }
+            ++firstCounts[dest[1] + 5];
+            assertEquals(0, dest[0]);
+            assertEquals(0, dest[11]);
+        }
+        for (final int count : firstCounts) {
+            assertTrue(count > 1800 && count < 2200, "count = " + count);
+        }
+
+        generator.fill(dest, 0, 12, Short.MIN_VALUE, Short.MAX_VALUE, true);
+        for (int i = 0; i < dest.length; ++i) {
+            for (int j = i + 1; j < dest.length; ++j) {
+                assertTrue(dest[i] != dest[j]);
+            }
+        }
+    }
+
+    /**
+     * 不重複的位元組在稀疏的範圍內要均勻分布。
+     */
+    @Test
+    public void uniqueBytesAreDistinctAndUniform() {
+        final MagicRandomGenerator generator = new MagicRandomGenerator(new SplittableRandomEngine(13L));
+        final byte[] dest = new byte[3];
+        final int[] counts = new int[256];
+        for (int run = 0; run < 25600; ++run) {
+            generator.fill(dest, 0, 3, Byte.MIN_VALUE, Byte.MAX_VALUE, true);
+            assertTrue(dest[0] != dest[1] && dest[0] != dest[2] && dest[1] != dest[2]);
+            for (final byte value : dest) {
+                ++counts[value + 128];
+            }
+        }
+        for (final int count : counts) {
+            assertTrue(count > 200 && count < 400, "count = " + count);
+        }
+    }
+}
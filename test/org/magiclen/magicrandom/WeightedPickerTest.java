@@ -0,0 +1,47 @@
+/*
+ *
+ * Copyright 2015-2016 magiclen.org
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.magiclen.magicrandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.magiclen.magicrandom.engine.SplittableRandomEngine;
+
+/**
+ * 測試WeightedPicker。
+ *
+ * @author Magic Len
+ */
+public class WeightedPickerTest {
+
+    /**
+     * 沒有權重值時，所有元素的權重相同。
+     */
+    @Test
+    public void emptyWeightsAreUniform() {
+        final Integer[] array = {0, 1, 2, 3};
+        final WeightedPicker<Integer> picker = new WeightedPicker<>(new SplittableRandomEngine(3L), array);
+        final int[] counts = new int[array.length];
+        for (int i = 0; i < 40000; ++i) {
+            ++counts[picker.pick()];
+        }
+        for (final int count : counts) {
+            assertTrue(count > 9000 && count < 11000, "count = " + count);
+        }
+    }
+}